@@ -0,0 +1,13 @@
+package com.ats.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async listeners; they run on Spring Boot's bounded applicationTaskExecutor
+ * (sized through spring.task.execution.pool.*).
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -1,7 +1,9 @@
 package com.ats.ecommerce.config;
 
 import com.ats.ecommerce.entity.*;
+import com.ats.ecommerce.entity.enums.StockMovementType;
 import com.ats.ecommerce.repository.*;
+import com.ats.ecommerce.service.StockLedgerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -25,6 +27,9 @@ public class DatabaseSeeder implements CommandLineRunner {
     private final UserRepository userRepository;
     private final CartRepository cartRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StockLedgerService stockLedgerService;
+    private final WarehouseRepository warehouseRepository;
+    private final LocationStockRepository locationStockRepository;
 
     @Override
     @Transactional
@@ -49,8 +54,11 @@ public class DatabaseSeeder implements CommandLineRunner {
         // Seed categories
         List<Category> categories = seedCategories();
 
+        // Seed warehouses
+        List<Warehouse> warehouses = seedWarehouses();
+
         // Seed products
-        seedProducts(categories);
+        seedProducts(categories, warehouses);
 
         log.info("Database seeding completed successfully!");
     }
@@ -165,7 +173,17 @@ public class DatabaseSeeder implements CommandLineRunner {
         return categories;
     }
 
-    private void seedProducts(List<Category> categories) {
+    private List<Warehouse> seedWarehouses() {
+        List<Warehouse> warehouses = warehouseRepository.saveAll(List.of(
+                new Warehouse(null, "MAIN", "Main Warehouse", 10, true),
+                new Warehouse(null, "NORTH", "North Warehouse", 20, true),
+                new Warehouse(null, "SOUTH", "South Warehouse", 30, true)
+        ));
+        log.info("Warehouses seeded: " + warehouses.size() + " locations");
+        return warehouses;
+    }
+
+    private void seedProducts(List<Category> categories, List<Warehouse> warehouses) {
         log.info("Seeding products...");
 
         List<Product> products = new ArrayList<>();
@@ -271,6 +289,11 @@ public class DatabaseSeeder implements CommandLineRunner {
 
         // Save all products
         productRepository.saveAll(products);
+        for (Product product : products) {
+            stockLedgerService.record(product.getId(), StockMovementType.RECEIPT,
+                    product.getInventory().getQuantity(), "opening");
+        }
+        seedLocationStock(products, warehouses);
         log.info("Products seeded: " + products.size() + " items");
         
         // Log product summary
@@ -302,6 +325,22 @@ public class DatabaseSeeder implements CommandLineRunner {
         return product;
     }
 
+    // Spreads each product's stock 50/30/20 over the warehouses; the shares add up to Inventory.quantity
+    private void seedLocationStock(List<Product> products, List<Warehouse> warehouses) {
+        int[] shares = {50, 30, 20};
+        List<LocationStock> rows = new ArrayList<>();
+        for (Product product : products) {
+            int total = product.getInventory().getQuantity();
+            int left = total;
+            for (int i = 0; i < warehouses.size(); i++) {
+                int units = i == warehouses.size() - 1 ? left : total * shares[i] / 100;
+                rows.add(new LocationStock(null, product.getId(), warehouses.get(i).getId(), units));
+                left -= units;
+            }
+        }
+        locationStockRepository.saveAll(rows);
+    }
+
     private Category findCategoryByName(List<Category> categories, String name) {
         return categories.stream()
                 .filter(c -> c.getName().equals(name))
@@ -1,13 +1,26 @@
 package com.ats.ecommerce.controller;
 
 import com.ats.ecommerce.dto.admin.AdminDashboardDto;
-import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.admin.OrderBatchStatsDto;
+import com.ats.ecommerce.dto.admin.OrderReplayResultDto;
+import com.ats.ecommerce.dto.admin.OutboxStatsDto;
+import com.ats.ecommerce.dto.order.OrderPageDto;
+import com.ats.ecommerce.dto.order.OrderSearchRequest;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
 import com.ats.ecommerce.dto.product.ProductResponseDto;
+import com.ats.ecommerce.dto.warehouse.OrderAllocationDto;
 import com.ats.ecommerce.service.AdminService;
+import com.ats.ecommerce.service.OrderBatchWriter;
+import com.ats.ecommerce.service.OrderEventService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.WarehouseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,6 +34,10 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final OrderBatchWriter orderBatchWriter;
+    private final OrderEventService orderEventService;
+    private final OutboxService outboxService;
+    private final WarehouseService warehouseService;
 
     @GetMapping("/dashboard")
     public AdminDashboardDto getDashboard() {
@@ -28,10 +45,40 @@ public class AdminController {
     }
 
     @GetMapping("/orders")
-    public List<OrderDto> getAllOrders() {
+    public List<OrderSummaryDto> getAllOrders() {
         return adminService.getAllOrders();
     }
 
+    // Cursor-paginated, filterable by userId, status and from/to
+    @GetMapping("/orders/page")
+    public OrderPageDto searchOrders(@ModelAttribute OrderSearchRequest request) {
+        return adminService.searchOrders(request);
+    }
+
+    // Which warehouses ship each line of the order
+    @GetMapping("/orders/{orderId}/allocation")
+    public List<OrderAllocationDto> getOrderAllocation(@PathVariable Long orderId) {
+        return warehouseService.getAllocation(orderId);
+    }
+
+    // Group-commit latency and throughput, one row per batch size
+    @GetMapping("/order-writer/stats")
+    public List<OrderBatchStatsDto> getOrderWriterStats() {
+        return orderBatchWriter.getStats();
+    }
+
+    // Rebuilds order statuses and sales totals from the order event log
+    @PostMapping("/order-events/replay")
+    public OrderReplayResultDto replayOrderEvents() {
+        return orderEventService.replay();
+    }
+
+    // Outbox backlog and delivery lag
+    @GetMapping("/outbox/stats")
+    public OutboxStatsDto getOutboxStats() {
+        return outboxService.getStats();
+    }
+
     @GetMapping("/products")
     public List<ProductResponseDto> getAllProducts() {
         return adminService.getAllProducts();
@@ -2,13 +2,16 @@ package com.ats.ecommerce.controller;
 
 import com.ats.ecommerce.dto.cart.CartDto;
 import com.ats.ecommerce.dto.cart.CartItemDto;
+import com.ats.ecommerce.dto.cart.CartViewDto;
 import com.ats.ecommerce.entity.Cart;
+import com.ats.ecommerce.exception.BadRequestException;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.service.CartItemService;
 import com.ats.ecommerce.service.CartService;
 import com.ats.ecommerce.util.SecurityUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -33,7 +36,7 @@ public class CartController {
 
     @GetMapping("/{cartId}/my-cart")
     public ResponseEntity<CartDto> getCart(@PathVariable Long cartId) {
-        return ResponseEntity.ok(cartService.getCart(cartId));
+        return withETag(cartService.getCart(cartId));
     }
 
     @GetMapping("/my-cart")
@@ -42,35 +45,57 @@ public class CartController {
         
         try {
             CartDto cart = cartService.getCartByUserId(userId);
-            return ResponseEntity.ok(cart);
+            return withETag(cart);
         } catch (ResourceNotFoundException e) {
             // User doesn't have a cart yet - return 404
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * GET /cart/{cartId}/view - Cart lines with product details, stock and line totals
+     */
+    @GetMapping("/{cartId}/view")
+    public ResponseEntity<CartViewDto> getCartView(@PathVariable Long cartId) {
+        CartViewDto view = cartService.getCartView(cartId);
+        return ResponseEntity.ok().eTag(String.valueOf(view.getVersion())).body(view);
+    }
+
+    /**
+     * GET /cart/my-cart/view - Same as above for the current user's cart
+     */
+    @GetMapping("/my-cart/view")
+    public ResponseEntity<CartViewDto> getMyCartView() {
+        Long userId = securityUtil.getCurrentUser().getId();
+        CartViewDto view = cartService.getCartViewByUserId(userId);
+        return ResponseEntity.ok().eTag(String.valueOf(view.getVersion())).body(view);
+    }
+
     @PostMapping("/{cartId}/items")
     public ResponseEntity<CartDto> addItem(
             @PathVariable Long cartId,
-            @RequestBody @Valid CartItemDto dto
+            @RequestBody @Valid CartItemDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(cartItemService.addItem(cartId, dto));
+        return withETag(cartItemService.addItem(cartId, dto, parseIfMatch(ifMatch)));
     }
 
     @PutMapping("/{cartId}/items")
     public ResponseEntity<CartDto> updateItem(
             @PathVariable Long cartId,
-            @RequestBody @Valid CartItemDto dto
+            @RequestBody @Valid CartItemDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(cartItemService.updateItem(cartId, dto));
+        return withETag(cartItemService.updateItem(cartId, dto, parseIfMatch(ifMatch)));
     }
 
     @DeleteMapping("/{cartId}/items/{productId}")
     public ResponseEntity<CartDto> removeItem(
             @PathVariable Long cartId,
-            @PathVariable Long productId
+            @PathVariable Long productId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(cartItemService.removeItem(cartId, productId));
+        return withETag(cartItemService.removeItem(cartId, productId, parseIfMatch(ifMatch)));
     }
 
     @DeleteMapping("/{cartId}/clear")
@@ -84,4 +109,25 @@ public class CartController {
         cartService.deleteCart(cartId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<CartDto> withETag(CartDto cart) {
+        return ResponseEntity.ok().eTag(String.valueOf(cart.getVersion())).body(cart);
+    }
+
+    // Accepts "3", W/"3" or * (any version)
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.ats.ecommerce.controller;
 
+import com.ats.ecommerce.dto.order.CheckoutPreflightDto;
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderIntentDto;
 import com.ats.ecommerce.security.UserDetailsImpl;
+import com.ats.ecommerce.service.AsyncCheckoutService;
 import com.ats.ecommerce.service.CheckoutService;
+import com.ats.ecommerce.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/checkout")
 @CrossOrigin(origins = "*")
@@ -21,15 +32,62 @@ import org.springframework.web.bind.annotation.RestController;
 public class CheckoutController {
 
     private final CheckoutService checkoutService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncCheckoutService asyncCheckoutService;
+
+    @Value("${app.checkout.preflight.cache-seconds:3}")
+    private long preflightCacheSeconds;
+
+    // Read-only dry run of checkout; the ETag is the cart version it was computed from
+    @GetMapping("/{cartId}/preflight")
+    public ResponseEntity<CheckoutPreflightDto> preflight(
+            @PathVariable Long cartId,
+            @AuthenticationPrincipal UserDetailsImpl user
+    ) {
+        CheckoutPreflightDto preflight = checkoutService.preflight(cartId, user.getUser());
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(preflight.getCartVersion()))
+                .cacheControl(CacheControl.maxAge(preflightCacheSeconds, TimeUnit.SECONDS).cachePrivate())
+                .body(preflight);
+    }
 
     @PostMapping("/{cartId}")
     public ResponseEntity<OrderDto> checkout(
             @PathVariable Long cartId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetailsImpl user
     ) {
         return ResponseEntity.ok(
-                checkoutService.checkout(cartId, user.getUser())
+                idempotencyService.execute(
+                        "checkout", String.valueOf(user.getUser().getId()), idempotencyKey, cartId,
+                        OrderDto.class,
+                        () -> checkoutService.checkout(cartId, user.getUser())
+                )
         );
     }
-}
 
+    // Queues the checkout and returns 202 with an intent to poll
+    @PostMapping("/{cartId}/async")
+    public ResponseEntity<OrderIntentDto> checkoutAsync(
+            @PathVariable Long cartId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @AuthenticationPrincipal UserDetailsImpl user
+    ) {
+        OrderIntentDto intent = idempotencyService.execute(
+                "checkout-async", String.valueOf(user.getUser().getId()), idempotencyKey, cartId,
+                OrderIntentDto.class,
+                () -> asyncCheckoutService.submit(cartId, user.getUser())
+        );
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/checkout/intents/" + intent.getIntentId())
+                .body(intent);
+    }
+
+    @GetMapping("/intents/{intentId}")
+    public ResponseEntity<OrderIntentDto> getIntent(
+            @PathVariable Long intentId,
+            @AuthenticationPrincipal UserDetailsImpl user
+    ) {
+        return ResponseEntity.ok(asyncCheckoutService.getIntent(intentId, user.getUser()));
+    }
+}
@@ -1,12 +1,19 @@
 package com.ats.ecommerce.controller;
 
+import com.ats.ecommerce.dto.inventory.BulkStockUpdateRequestDto;
+import com.ats.ecommerce.dto.inventory.BulkStockUpdateResultDto;
 import com.ats.ecommerce.dto.inventory.InventoryResponseDto;
 import com.ats.ecommerce.dto.inventory.InventoryUpdateRequestDto;
+import com.ats.ecommerce.dto.inventory.ReorderThresholdRequestDto;
+import com.ats.ecommerce.dto.inventory.StockLedgerDto;
+import com.ats.ecommerce.dto.warehouse.LocationStockDto;
 import com.ats.ecommerce.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/inventory")
 @CrossOrigin(origins = "*")
@@ -21,6 +28,15 @@ public class InventoryController {
         return inventoryService.getStock(productId);
     }
 
+    // Snapshot + recent movements next to the inventory row; drift != 0 means they disagree
+    @GetMapping("/{productId}/ledger")
+    public StockLedgerDto getLedger(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return inventoryService.getLedger(productId, limit);
+    }
+
     @PutMapping("/{productId}")
     public InventoryResponseDto updateStock(
             @PathVariable Long productId,
@@ -28,6 +44,47 @@ public class InventoryController {
     ) {
         return inventoryService.updateStock(productId, request.getQuantity());
     }
-}
 
+    @GetMapping("/{productId}/locations")
+    public List<LocationStockDto> getLocations(@PathVariable Long productId) {
+        return inventoryService.getLocations(productId);
+    }
+
+    @PutMapping("/{productId}/locations/{warehouseId}")
+    public InventoryResponseDto setLocationQuantity(
+            @PathVariable Long productId,
+            @PathVariable Long warehouseId,
+            @RequestBody InventoryUpdateRequestDto request
+    ) {
+        return inventoryService.setLocationQuantity(productId, warehouseId, request.getQuantity());
+    }
+
+    // Nightly warehouse sync: many absolute or delta updates in one call, with a result per row
+    @PostMapping("/bulk")
+    public BulkStockUpdateResultDto bulkUpdate(@RequestBody BulkStockUpdateRequestDto request) {
+        return inventoryService.bulkUpdate(request.getUpdates());
+    }
+
+    // Admins are notified once each time stock drops below the threshold
+    @PutMapping("/{productId}/reorder-threshold")
+    public InventoryResponseDto setReorderThreshold(
+            @PathVariable Long productId,
+            @RequestBody ReorderThresholdRequestDto request
+    ) {
+        return inventoryService.setReorderThreshold(productId, request.getThreshold());
+    }
+
+    // Splits the product's stock over N rows for flash sales
+    @PutMapping("/{productId}/hot-sku")
+    public InventoryResponseDto enableHotSku(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "8") int shards
+    ) {
+        return inventoryService.enableHotSku(productId, shards);
+    }
 
+    @DeleteMapping("/{productId}/hot-sku")
+    public InventoryResponseDto disableHotSku(@PathVariable Long productId) {
+        return inventoryService.disableHotSku(productId);
+    }
+}
@@ -1,7 +1,12 @@
 package com.ats.ecommerce.controller;
 
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderEventDto;
+import com.ats.ecommerce.dto.order.OrderPageDto;
+import com.ats.ecommerce.dto.order.OrderSearchRequest;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
 import com.ats.ecommerce.security.UserDetailsImpl;
+import com.ats.ecommerce.service.OrderEventService;
 import com.ats.ecommerce.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,14 +22,21 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderEventService orderEventService;
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrder(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrder(id));
     }
 
+    // Every recorded event of the order, oldest first
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<List<OrderEventDto>> getTimeline(@PathVariable Long id) {
+        return ResponseEntity.ok(orderEventService.getTimeline(id));
+    }
+
     @GetMapping
-    public ResponseEntity<List<OrderDto>> getMyOrders(
+    public ResponseEntity<List<OrderSummaryDto>> getMyOrders(
             @AuthenticationPrincipal UserDetailsImpl user
     ) {
         return ResponseEntity.ok(
@@ -32,6 +44,16 @@ public class OrderController {
         );
     }
 
+    // Cursor-paginated history of the current user, filterable by status and from/to
+    @GetMapping("/page")
+    public ResponseEntity<OrderPageDto> getMyOrderPage(
+            @ModelAttribute OrderSearchRequest request,
+            @AuthenticationPrincipal UserDetailsImpl user
+    ) {
+        request.setUserId(user.getUser().getId());
+        return ResponseEntity.ok(orderService.searchOrders(request));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancel(@PathVariable Long id) {
         orderService.cancelOrder(id);
@@ -2,14 +2,18 @@ package com.ats.ecommerce.controller;
 
 import com.ats.ecommerce.dto.payment.PaymentRequestDto;
 import com.ats.ecommerce.dto.payment.PaymentResponseDto;
+import com.ats.ecommerce.security.UserDetailsImpl;
+import com.ats.ecommerce.service.IdempotencyService;
 import com.ats.ecommerce.service.PaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,12 +24,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<PaymentResponseDto> pay(
-            @RequestBody @Valid PaymentRequestDto request
+            @RequestBody @Valid PaymentRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @AuthenticationPrincipal UserDetailsImpl user
     ) {
-        return ResponseEntity.ok(paymentService.pay(request));
+        return ResponseEntity.ok(
+                idempotencyService.execute(
+                        "payment", String.valueOf(user.getUser().getId()), idempotencyKey, request,
+                        PaymentResponseDto.class,
+                        () -> paymentService.pay(request)
+                )
+        );
     }
 }
@@ -3,14 +3,17 @@ package com.ats.ecommerce.controller;
 import com.ats.ecommerce.dto.product.ProductRequestDto;
 import com.ats.ecommerce.dto.product.ProductResponseDto;
 import com.ats.ecommerce.service.ProductService;
+import com.ats.ecommerce.service.StockStreamService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -21,6 +24,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final StockStreamService stockStreamService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -31,6 +35,15 @@ public class ProductController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    /**
+     * GET /products/stock/stream?ids=1,2,3
+     * Server-sent "stock" events with [{productId, stockQuantity}] instead of polling /products/{id}
+     */
+    @GetMapping(value = "/stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStock(@RequestParam List<Long> ids) {
+        return stockStreamService.subscribe(ids);
+    }
+
     /**
      * GET /products?name=&categoryId=&minPrice=&maxPrice=&active=
      */
@@ -3,6 +3,7 @@ package com.ats.ecommerce.controller;
 import com.ats.ecommerce.dto.payment.StripeCheckoutRequest;
 import com.ats.ecommerce.dto.payment.StripeCheckoutResponse;
 import com.ats.ecommerce.security.UserDetailsImpl;
+import com.ats.ecommerce.service.IdempotencyService;
 import com.ats.ecommerce.service.StripeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 public class StripeController {
 
     private final StripeService stripeService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a Stripe Checkout Session
@@ -26,11 +28,13 @@ public class StripeController {
     @PostMapping("/create-checkout-session")
     public ResponseEntity<StripeCheckoutResponse> createCheckoutSession(
             @RequestBody StripeCheckoutRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetailsImpl user
     ) {
-        StripeCheckoutResponse response = stripeService.createCheckoutSession(
-                request.getCartId(),
-                user.getUser()
+        StripeCheckoutResponse response = idempotencyService.execute(
+                "stripe-session", String.valueOf(user.getUser().getId()), idempotencyKey, request.getCartId(),
+                StripeCheckoutResponse.class,
+                () -> stripeService.createCheckoutSession(request.getCartId(), user.getUser())
         );
         return ResponseEntity.ok(response);
     }
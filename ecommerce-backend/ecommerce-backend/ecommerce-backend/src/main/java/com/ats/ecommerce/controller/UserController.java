@@ -1,12 +1,16 @@
 package com.ats.ecommerce.controller;
 
+import com.ats.ecommerce.dto.notification.NotificationDto;
 import com.ats.ecommerce.dto.user.*;
+import com.ats.ecommerce.security.UserDetailsImpl;
+import com.ats.ecommerce.service.NotificationService;
 import com.ats.ecommerce.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,6 +22,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final NotificationService notificationService;
 
     @GetMapping("/me")
     public ResponseEntity<UserDto> getCurrentUser(Authentication authentication) {
@@ -34,6 +39,13 @@ public class UserController {
         return ResponseEntity.ok(userService.updateProfile(email, request));
     }
 
+    @GetMapping("/me/notifications")
+    public ResponseEntity<List<NotificationDto>> getMyNotifications(
+            @AuthenticationPrincipal UserDetailsImpl user
+    ) {
+        return ResponseEntity.ok(notificationService.getUserNotifications(user.getUser().getId()));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
@@ -0,0 +1,33 @@
+package com.ats.ecommerce.controller;
+
+import com.ats.ecommerce.dto.warehouse.WarehouseDto;
+import com.ats.ecommerce.dto.warehouse.WarehouseRequestDto;
+import com.ats.ecommerce.service.WarehouseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/warehouses")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+
+    // In allocation order: lowest priority first
+    @GetMapping
+    public List<WarehouseDto> getWarehouses() {
+        return warehouseService.getWarehouses();
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public WarehouseDto createWarehouse(@RequestBody WarehouseRequestDto request) {
+        return warehouseService.createWarehouse(request);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ats.ecommerce.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchStatsDto {
+    private Integer batchSize;
+    private Long batches;
+    private Long orders;
+    private Double avgLatencyMs;     // enqueue to durable commit, per order
+    private Double maxLatencyMs;
+    private Double avgCommitMs;      // time to write and commit one batch
+    private Double ordersPerSecond;  // orders / time spent writing batches of this size
+}
@@ -0,0 +1,24 @@
+package com.ats.ecommerce.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Sales counters rebuilt from the order event log
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReplayResultDto {
+    private Long eventsReplayed;
+    private Long lastEventId;
+    private Long ordersCreated;
+    private Long ordersCancelled;
+    private Long paymentsSucceeded;
+    private Long paymentsFailed;
+    private BigDecimal grossSales;      // value of all orders created
+    private BigDecimal paidSales;       // value of successful payments
+    private BigDecimal cancelledSales;  // value of orders later cancelled
+    private Integer statusesRebuilt;    // order_summaries rows whose status was rewritten
+}
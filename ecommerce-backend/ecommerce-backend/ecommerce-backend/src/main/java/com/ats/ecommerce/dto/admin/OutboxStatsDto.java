@@ -0,0 +1,18 @@
+package com.ats.ecommerce.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatsDto {
+    private Long pending;
+    private Long parked;               // gave up after max attempts
+    private Long oldestPendingAgeMs;   // current relay lag
+    private Long delivered;            // by this node since start
+    private Long failedAttempts;
+    private Long lastLagMs;            // write to delivery, last message
+    private Long maxLagMs;
+}
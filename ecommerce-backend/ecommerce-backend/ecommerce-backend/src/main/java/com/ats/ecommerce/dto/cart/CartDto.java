@@ -13,4 +13,5 @@ public class CartDto {
 
     private Long cartId;
     private List<CartItemDto> items;
+    private Long version;
 }
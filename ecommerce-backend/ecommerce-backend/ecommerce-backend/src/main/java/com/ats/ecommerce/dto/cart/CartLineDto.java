@@ -0,0 +1,22 @@
+package com.ats.ecommerce.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineDto {
+
+    private Long productId;
+    private String sku;
+    private String productName;
+    private String imageUrl;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private Integer availableQuantity;
+    private BigDecimal lineTotal;
+}
@@ -0,0 +1,20 @@
+package com.ats.ecommerce.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartViewDto {
+
+    private Long cartId;
+    private List<CartLineDto> items;
+    private Integer totalItems;
+    private BigDecimal totalAmount;
+    private Long version;
+}
@@ -0,0 +1,11 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStockUpdateRequestDto {
+    // Applied in order; a product may appear more than once
+    private List<StockAdjustmentDto> updates;
+}
@@ -0,0 +1,18 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockUpdateResultDto {
+    private Integer requested;
+    private Integer applied;
+    private Integer failed;
+    // One per request row, in request order
+    private List<StockAdjustmentResultDto> results;
+}
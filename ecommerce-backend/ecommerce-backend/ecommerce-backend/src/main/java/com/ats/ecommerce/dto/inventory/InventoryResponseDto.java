@@ -2,11 +2,14 @@ package com.ats.ecommerce.dto.inventory;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class InventoryResponseDto {
     private Long productId;
     private Integer quantity;
+    private Integer reserved;
+    private Integer available;
 }
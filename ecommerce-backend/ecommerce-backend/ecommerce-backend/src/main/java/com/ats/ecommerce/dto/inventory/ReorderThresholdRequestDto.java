@@ -0,0 +1,12 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderThresholdRequestDto {
+    private Integer threshold; // null turns low-stock alerts off
+}
@@ -0,0 +1,15 @@
+package com.ats.ecommerce.dto.inventory;
+
+import com.ats.ecommerce.entity.enums.StockAdjustmentMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDto {
+    private Long productId;
+    private StockAdjustmentMode mode = StockAdjustmentMode.SET;
+    private Integer quantity;
+}
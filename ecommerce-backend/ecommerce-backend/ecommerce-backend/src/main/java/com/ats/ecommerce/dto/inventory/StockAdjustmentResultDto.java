@@ -0,0 +1,15 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDto {
+    private Long productId;
+    private String status;      // APPLIED, NOT_FOUND, REJECTED or INVALID
+    private Integer quantity;   // on hand after the row's chunk, when applied
+    private String message;
+}
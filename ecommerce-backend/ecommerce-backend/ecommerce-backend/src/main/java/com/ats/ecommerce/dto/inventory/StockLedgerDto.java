@@ -0,0 +1,23 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerDto {
+    private Long productId;
+    private Integer snapshotQuantity;
+    private LocalDateTime snapshotTakenAt;
+    private Integer ledgerQuantity;     // snapshot + movements since
+    private Integer ledgerReserved;
+    private Integer inventoryQuantity;  // what the inventory row says
+    private Integer inventoryReserved;
+    private Integer drift;              // inventoryQuantity - ledgerQuantity; 0 when reconciled
+    private List<StockMovementDto> recentMovements;
+}
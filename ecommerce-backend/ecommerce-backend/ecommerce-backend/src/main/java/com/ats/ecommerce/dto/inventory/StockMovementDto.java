@@ -0,0 +1,18 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDto {
+    private Long movementId;
+    private String type;
+    private Integer quantity;
+    private String reference;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,13 @@
+package com.ats.ecommerce.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockUpdateDto {
+    private Long productId;
+    private Integer stockQuantity; // same meaning as ProductResponseDto.stockQuantity
+}
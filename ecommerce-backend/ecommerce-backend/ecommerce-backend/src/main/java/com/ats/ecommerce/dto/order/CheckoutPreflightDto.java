@@ -0,0 +1,25 @@
+package com.ats.ecommerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutPreflightDto {
+
+    private Long cartId;
+    private Long cartVersion;
+    // At the prices the lines were added at
+    private BigDecimal cartTotal;
+    // At current prices; what checkout would charge
+    private BigDecimal total;
+    private boolean priceChanged;
+    private boolean allAvailable;
+    private boolean ready;
+    private List<PreflightLineDto> lines;
+}
@@ -0,0 +1,20 @@
+package com.ats.ecommerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventDto {
+    private Long eventId;
+    private Long orderId;
+    private String type;
+    private BigDecimal amount;
+    private String detail;
+    private LocalDateTime occurredAt;
+}
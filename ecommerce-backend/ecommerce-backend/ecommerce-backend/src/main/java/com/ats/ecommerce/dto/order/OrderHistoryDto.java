@@ -0,0 +1,21 @@
+package com.ats.ecommerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryDto {
+    private Long orderId;
+    private Long userId;
+    private String status;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private List<OrderItemDto> items;
+}
@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 public class OrderItemDto {
 
     private Long productId;
-    //private String productName;
+    private String sku;
+    private String productName;
+    private String imageUrl;
 
     private Integer quantity;
     private BigDecimal price;
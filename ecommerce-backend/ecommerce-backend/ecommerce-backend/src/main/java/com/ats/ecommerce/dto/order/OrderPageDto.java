@@ -0,0 +1,16 @@
+package com.ats.ecommerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDto {
+    private List<OrderHistoryDto> orders;
+    private String nextCursor;   // pass back as ?cursor= for the next page; null on the last page
+    private boolean hasMore;
+}
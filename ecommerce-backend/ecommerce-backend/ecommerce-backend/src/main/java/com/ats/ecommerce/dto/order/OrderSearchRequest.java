@@ -0,0 +1,27 @@
+package com.ats.ecommerce.dto.order;
+
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Query parameters of the paginated order listings; every filter is optional
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchRequest {
+    private Long userId;
+    private OrderStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;   // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;     // exclusive
+
+    private String cursor;
+    private Integer size;
+}
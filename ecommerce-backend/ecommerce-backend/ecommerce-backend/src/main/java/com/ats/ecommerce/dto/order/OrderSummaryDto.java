@@ -0,0 +1,24 @@
+package com.ats.ecommerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+    private Long orderId;
+    private Long userId;
+    private String status;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private String paymentStatus;
+    private String shipmentStatus;
+    private LocalDateTime createdAt;
+    private List<OrderItemDto> items;
+}
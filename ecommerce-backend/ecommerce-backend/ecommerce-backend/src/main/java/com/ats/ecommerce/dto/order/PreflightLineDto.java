@@ -0,0 +1,24 @@
+package com.ats.ecommerce.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreflightLineDto {
+
+    private Long productId;
+    private String sku;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal cartUnitPrice;
+    private BigDecimal currentPrice;
+    private boolean priceChanged;
+    private Integer availableQuantity;
+    private boolean available;
+    private BigDecimal lineTotal;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,4 +17,6 @@ public class StripeCheckoutResponse {
     private Long orderId;
     private String status;
     private String paymentStatus;
+    // Per checkout step, in milliseconds; only set when a session is created
+    private Map<String, Long> stepLatencyMs;
 }
\ No newline at end of file
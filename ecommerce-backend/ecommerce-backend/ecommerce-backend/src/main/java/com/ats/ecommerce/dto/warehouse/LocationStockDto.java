@@ -0,0 +1,14 @@
+package com.ats.ecommerce.dto.warehouse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStockDto {
+    private Long warehouseId;
+    private String warehouseCode;
+    private Integer quantity;
+}
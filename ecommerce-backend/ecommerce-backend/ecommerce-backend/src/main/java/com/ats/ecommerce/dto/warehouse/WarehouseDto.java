@@ -0,0 +1,16 @@
+package com.ats.ecommerce.dto.warehouse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseDto {
+    private Long id;
+    private String code;
+    private String name;
+    private Integer priority;
+    private Boolean active;
+}
@@ -0,0 +1,10 @@
+package com.ats.ecommerce.dto.warehouse;
+
+import lombok.Data;
+
+@Data
+public class WarehouseRequestDto {
+    private String code;
+    private String name;
+    private Integer priority;
+}
@@ -0,0 +1,40 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Closed order moved out of the hot orders table by the archival job. Keeps the
+ * original id so lookups by order id keep working.
+ */
+@Entity
+@Table(name = "orders_archive",
+        indexes = {@Index(name = "idx_orders_archive_user_created", columnList = "user_id, created_at")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private BigDecimal totalAmount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,34 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payments_archive",
+        indexes = {@Index(name = "idx_payments_archive_order", columnList = "order_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPayment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    private String provider;
+    private String reference;
+    private LocalDateTime createdAt;
+}
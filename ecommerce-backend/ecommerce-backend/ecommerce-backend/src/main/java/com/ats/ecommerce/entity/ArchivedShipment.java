@@ -0,0 +1,29 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.ShipmentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "shipments_archive",
+        indexes = {@Index(name = "idx_shipments_archive_order", columnList = "order_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedShipment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    private String carrier;
+    private String trackingNumber;
+    private String address;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus status;
+}
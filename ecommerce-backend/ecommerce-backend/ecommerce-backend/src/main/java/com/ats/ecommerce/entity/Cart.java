@@ -31,6 +31,11 @@ public class Cart {
 
     private LocalDateTime createdAt;
 
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
     public void addItem(CartItem item) {
         items.add(item);
         item.setCart(this);
@@ -48,6 +53,11 @@ public class Cart {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    // Every line change touches the cart row so its version moves with it
+    public void markUpdated() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
 
 }
 
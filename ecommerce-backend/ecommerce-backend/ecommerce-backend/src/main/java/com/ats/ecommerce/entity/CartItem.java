@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"cart_id", "product_id"})})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
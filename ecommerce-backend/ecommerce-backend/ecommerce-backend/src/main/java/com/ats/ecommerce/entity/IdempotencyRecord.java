@@ -0,0 +1,50 @@
+package com.ats.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key. A row without a
+ * response body is a claim: the first request is still executing. A claim only
+ * lives for a short lease, so one left behind by a crashed node can be taken over.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"scope", "principal", "idempotency_key"})},
+        indexes = {@Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String scope;
+
+    @Column(nullable = false, length = 100)
+    private String principal;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // Hash of the request the key was first used with
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Lob
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
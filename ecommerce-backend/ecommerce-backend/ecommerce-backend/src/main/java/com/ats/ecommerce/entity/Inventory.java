@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = {
+        @Index(name = "idx_inventory_low_stock", columnList = "low_stock_alerted, product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +23,28 @@ public class Inventory {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    // Total over all warehouses (see LocationStock), kept up to date by every stock write
+    // so catalogue reads never sum location rows
     @Column(nullable = false)
     private Integer quantity;
+
+    // Units held by carts (soft holds); available = quantity - reserved
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer reserved = 0;
+
+    // Hot-SKU mode: > 0 means stock lives in that many inventory_shards rows
+    // and quantity is only a periodically refreshed aggregate
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer shardCount = 0;
+
+    // Reorder alert fires when quantity drops below this; null turns alerting off
+    private Integer reorderThreshold;
+
+    // Set when the alert for the current dip has been sent, cleared once stock is back up
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Boolean lowStockAlerted = false;
 }
 
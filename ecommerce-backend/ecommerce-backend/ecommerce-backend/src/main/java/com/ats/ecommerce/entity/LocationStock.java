@@ -0,0 +1,32 @@
+package com.ats.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * On-hand units of one product in one warehouse. Inventory.quantity stays the
+ * catalogue-facing total and is kept equal to the sum of these rows by every write.
+ */
+@Entity
+@Table(name = "location_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_location_stock", columnNames = {"product_id", "warehouse_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = {
+                @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"),
+                @Index(name = "idx_orders_status_created", columnList = "status, created_at"),
+                @Index(name = "idx_orders_created", columnList = "created_at")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
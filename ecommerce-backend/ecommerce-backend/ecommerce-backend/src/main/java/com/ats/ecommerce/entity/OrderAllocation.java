@@ -0,0 +1,35 @@
+package com.ats.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of an order line to be shipped from a warehouse. One order line may be split
+ * over several rows.
+ */
+@Entity
+@Table(name = "order_allocations",
+        indexes = {@Index(name = "idx_order_allocations_order", columnList = "order_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -0,0 +1,42 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.OrderEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only order timeline. Rows are never updated or deleted; the auto-increment
+ * id gives the replay order.
+ */
+@Entity
+@Table(name = "order_events",
+        indexes = {@Index(name = "idx_order_events_order", columnList = "order_id, id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OrderEventType type;
+
+    private BigDecimal amount;
+
+    // e.g. payment provider or shipment status
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
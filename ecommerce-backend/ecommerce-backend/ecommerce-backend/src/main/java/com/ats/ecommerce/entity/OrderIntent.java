@@ -0,0 +1,52 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.OrderIntentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A checkout accepted for asynchronous processing. Clients poll it until it
+ * points at the placed order or carries the failure reason.
+ */
+@Entity
+@Table(name = "order_intents",
+        indexes = {@Index(name = "idx_order_intents_user_id", columnList = "user_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "cart_id", nullable = false)
+    private Long cartId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderIntentStatus status;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    private String failureReason;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    void created() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+        this.status = OrderIntentStatus.QUEUED;
+    }
+}
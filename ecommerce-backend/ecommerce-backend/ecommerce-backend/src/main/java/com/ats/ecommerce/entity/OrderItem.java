@@ -22,9 +22,19 @@ public class OrderItem {
     @JoinColumn(name = "order_id")
     private Order order;
 
-    @ManyToOne
+    // Only the id is needed once placed; history renders from the snapshot below
+    @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
 
+    // Product as it was at placement, so renames and deletions don't rewrite history
+    private String sku;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "image_url")
+    private String imageUrl;
+
     private Integer quantity;
     private BigDecimal price;
 }
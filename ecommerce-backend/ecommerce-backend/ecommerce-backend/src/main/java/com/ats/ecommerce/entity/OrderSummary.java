@@ -0,0 +1,60 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.PaymentStatus;
+import com.ats.ecommerce.entity.enums.ShipmentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for order listings: one flat row per order, kept current in the same
+ * transaction as the order, payment and shipment writes. Line items are stored as
+ * a JSON snapshot since they never change after placement.
+ */
+@Entity
+@Table(name = "order_summaries",
+        indexes = {
+                @Index(name = "idx_order_summaries_user_created", columnList = "user_id, created_at"),
+                @Index(name = "idx_order_summaries_created", columnList = "created_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    private BigDecimal totalAmount;
+
+    // Units across all lines
+    private Integer itemCount;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus shipmentStatus;
+
+    @Lob
+    @Column(name = "items_json", columnDefinition = "TEXT")
+    private String itemsJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event written in the transaction of the state change it describes and
+ * handed to in-process subscribers by the outbox relay. A null publishedAt means
+ * not yet delivered.
+ */
+@Entity
+@Table(name = "outbox_messages",
+        indexes = {@Index(name = "idx_outbox_messages_pending", columnList = "published_at, id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private OutboxEventType eventType;
+
+    // JSON object
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Failed deliveries; the message is parked once this reaches the configured maximum
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,38 @@
+package com.ats.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Short-lived reservation of stock for a cart line. The expires_at index is the
+ * expiry queue: the sweeper reads it in order and releases lapsed holds in batches.
+ */
+@Entity
+@Table(name = "stock_holds",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"cart_id", "product_id"})},
+        indexes = {@Index(name = "idx_stock_holds_expires_at", columnList = "expires_at")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cart_id", nullable = false)
+    private Long cartId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,46 @@
+package com.ats.ecommerce.entity;
+
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only stock ledger. quantity is the signed change; movements older than the
+ * retention window are folded into {@link StockSnapshot} and deleted.
+ */
+@Entity
+@Table(name = "stock_movements",
+        indexes = {
+                @Index(name = "idx_stock_movements_product", columnList = "product_id, id"),
+                @Index(name = "idx_stock_movements_occurred", columnList = "occurred_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private StockMovementType type;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // e.g. order:42
+    @Column(length = 64)
+    private String reference;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
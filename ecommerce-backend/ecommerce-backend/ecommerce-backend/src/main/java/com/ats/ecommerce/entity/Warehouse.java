@@ -0,0 +1,34 @@
+package com.ats.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+@Entity
+@Table(name = "warehouses")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Warehouse {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 16)
+    private String code;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Lower ships first; the lowest active one also takes stock changes made without a location
+    @Column(nullable = false)
+    @ColumnDefault("100")
+    private Integer priority = 100;
+
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private Boolean active = true;
+}
@@ -0,0 +1,6 @@
+package com.ats.ecommerce.entity.enums;
+
+public enum AggregateType {
+    ORDER,
+    PRODUCT
+}
@@ -0,0 +1,30 @@
+package com.ats.ecommerce.entity.enums;
+
+public enum OrderEventType {
+    CREATED,
+    PAYMENT_SUCCEEDED,
+    PAYMENT_FAILED,
+    CONFIRMED,
+    SHIPPED,
+    CANCELLED,
+    SHIPMENT_CREATED,
+    SHIPMENT_SHIPPED,
+    SHIPMENT_DELIVERED;
+
+    public static OrderEventType of(OrderStatus status) {
+        return switch (status) {
+            case PENDING -> CREATED;
+            case CONFIRMED -> CONFIRMED;
+            case SHIPPED -> SHIPPED;
+            case CANCELLED -> CANCELLED;
+        };
+    }
+
+    public static OrderEventType of(ShipmentStatus status) {
+        return switch (status) {
+            case CREATED -> SHIPMENT_CREATED;
+            case SHIPPED -> SHIPMENT_SHIPPED;
+            case DELIVERED -> SHIPMENT_DELIVERED;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.ats.ecommerce.entity.enums;
+
+public enum OrderIntentStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
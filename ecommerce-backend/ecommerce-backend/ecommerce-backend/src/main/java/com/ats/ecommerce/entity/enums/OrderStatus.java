@@ -1,9 +1,22 @@
 package com.ats.ecommerce.entity.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     SHIPPED,
-    CANCELLED
+    CANCELLED;
+
+    // States an order may move into this one from
+    public Set<OrderStatus> allowedFrom() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(OrderStatus.class);
+            case CONFIRMED -> EnumSet.of(PENDING);
+            case SHIPPED -> EnumSet.of(CONFIRMED);
+            case CANCELLED -> EnumSet.of(PENDING, CONFIRMED);
+        };
+    }
 }
 
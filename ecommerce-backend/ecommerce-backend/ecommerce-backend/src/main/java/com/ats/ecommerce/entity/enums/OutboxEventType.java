@@ -0,0 +1,9 @@
+package com.ats.ecommerce.entity.enums;
+
+public enum OutboxEventType {
+    ORDER_PLACED,
+    ORDER_CANCELLED,
+    PAYMENT_SUCCEEDED,
+    PAYMENT_FAILED,
+    STOCK_CHANGED
+}
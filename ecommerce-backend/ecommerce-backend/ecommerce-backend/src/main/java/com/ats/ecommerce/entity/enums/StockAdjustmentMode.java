@@ -0,0 +1,6 @@
+package com.ats.ecommerce.entity.enums;
+
+public enum StockAdjustmentMode {
+    SET,    // quantity becomes the given value
+    DELTA   // quantity changes by the given (signed) value
+}
@@ -0,0 +1,15 @@
+package com.ats.ecommerce.entity.enums;
+
+public enum StockMovementType {
+    RECEIPT,
+    SALE,
+    RETURN,
+    ADJUSTMENT,
+    RESERVATION,
+    RESERVATION_RELEASE;
+
+    // Reservations move units between available and held; they don't change on-hand stock
+    public boolean isOnHand() {
+        return this != RESERVATION && this != RESERVATION_RELEASE;
+    }
+}
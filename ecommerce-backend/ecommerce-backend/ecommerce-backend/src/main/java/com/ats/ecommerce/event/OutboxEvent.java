@@ -0,0 +1,26 @@
+package com.ats.ecommerce.event;
+
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox message being delivered. Listeners run synchronously in the delivery
+ * transaction; throwing rolls the delivery back and the message is retried, so
+ * listeners must tolerate seeing the same message again.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboxEvent {
+
+    private final Long messageId;
+    private final AggregateType aggregateType;
+    private final Long aggregateId;
+    private final OutboxEventType type;
+    private final JsonNode payload;
+    private final LocalDateTime createdAt;
+}
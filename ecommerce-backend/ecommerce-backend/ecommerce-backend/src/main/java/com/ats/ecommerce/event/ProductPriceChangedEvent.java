@@ -0,0 +1,15 @@
+package com.ats.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class ProductPriceChangedEvent {
+
+    private final Long productId;
+    private final BigDecimal oldPrice;
+    private final BigDecimal newPrice;
+}
@@ -0,0 +1,13 @@
+package com.ats.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@AllArgsConstructor
+public class StockLevelsChangedEvent {
+
+    private final Collection<Long> productIds;
+}
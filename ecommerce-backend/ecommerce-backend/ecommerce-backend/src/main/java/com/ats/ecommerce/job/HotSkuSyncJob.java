@@ -0,0 +1,22 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.HotSkuStockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this node's shard counters in step with the rows other nodes write to,
+ * refills dry shards and refreshes the inventory.quantity aggregate of hot SKUs.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotSkuSyncJob {
+
+    private final HotSkuStockService hotSkuStockService;
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot-sku.sync-interval-ms:1000}")
+    public void synchronize() {
+        hotSkuStockService.synchronize();
+    }
+}
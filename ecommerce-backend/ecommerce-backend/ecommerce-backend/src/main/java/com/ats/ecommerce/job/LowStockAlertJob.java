@@ -0,0 +1,32 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.LowStockAlertService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the products whose stock changed since the last run against their reorder
+ * thresholds.
+ */
+@Component
+@RequiredArgsConstructor
+public class LowStockAlertJob {
+
+    private final LowStockAlertService lowStockAlertService;
+
+    @Value("${app.inventory.low-stock.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.inventory.low-stock.interval-ms:2000}")
+    public void evaluate() {
+        if (!lowStockAlertService.isEnabled()) {
+            return;
+        }
+        int checked;
+        do {
+            checked = lowStockAlertService.evaluatePending(batchSize);
+        } while (checked == batchSize);
+    }
+}
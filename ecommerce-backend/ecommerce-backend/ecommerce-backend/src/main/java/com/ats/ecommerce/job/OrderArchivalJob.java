@@ -0,0 +1,39 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.OrderArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves closed orders older than the retention window out of the hot tables in
+ * fixed-size chunks, each in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchivalJob {
+
+    private final OrderArchiveService orderArchiveService;
+
+    @Value("${app.orders.archive.after-months:12}")
+    private int afterMonths;
+
+    @Value("${app.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void archiveClosedOrders() {
+        if (!orderArchiveService.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(afterMonths);
+        int archived;
+        do {
+            archived = orderArchiveService.archiveBatch(cutoff, batchSize);
+        } while (archived == batchSize);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.AsyncCheckoutService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks up async checkouts that stalled: queued while every lane was full, or
+ * abandoned mid-checkout by a node that went down.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderIntentRecoveryJob {
+
+    private final AsyncCheckoutService asyncCheckoutService;
+
+    @Scheduled(fixedDelayString = "${app.checkout.async.recovery-interval-ms:60000}")
+    public void recoverStaleIntents() {
+        asyncCheckoutService.recoverStale();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Drains the outbox to in-process subscribers and removes delivered messages once
+ * they are past the retention window.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRelayJob {
+
+    private final OutboxService outboxService;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention-hours:72}")
+    private int retentionHours;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}")
+    public void relay() {
+        int delivered;
+        do {
+            delivered = outboxService.relayBatch();
+        } while (delivered == batchSize);
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 * * * *}")
+    public void purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int purged;
+        do {
+            purged = outboxService.purgePublished(cutoff, batchSize);
+        } while (purged == batchSize);
+    }
+}
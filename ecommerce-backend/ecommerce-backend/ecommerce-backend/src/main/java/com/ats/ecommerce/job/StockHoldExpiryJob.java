@@ -0,0 +1,32 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.StockHoldService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains lapsed soft holds in fixed-size batches, each in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockHoldExpiryJob {
+
+    private final StockHoldService stockHoldService;
+
+    @Value("${app.inventory.soft-holds.release-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.inventory.soft-holds.sweep-interval-ms:5000}")
+    public void releaseExpiredHolds() {
+        if (!stockHoldService.isEnabled()) {
+            return;
+        }
+
+        int released;
+        do {
+            released = stockHoldService.releaseExpired(batchSize);
+        } while (released == batchSize);
+    }
+}
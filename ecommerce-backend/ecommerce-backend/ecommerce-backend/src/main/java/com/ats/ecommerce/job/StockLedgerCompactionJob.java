@@ -0,0 +1,35 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.StockLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Folds stock movements past the retention window into per-product snapshots, so
+ * reading current stock from the ledger never walks old history.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockLedgerCompactionJob {
+
+    private final StockLedgerService stockLedgerService;
+
+    @Value("${app.inventory.ledger.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.inventory.ledger.compaction-batch-size:10000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${app.inventory.ledger.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int compacted;
+        do {
+            compacted = stockLedgerService.compact(cutoff, batchSize);
+        } while (compacted == batchSize);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.StockStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes coalesced stock changes to open product-page streams.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockStreamFlushJob {
+
+    private final StockStreamService stockStreamService;
+
+    @Scheduled(fixedDelayString = "${app.inventory.stream.flush-interval-ms:1000}")
+    public void flush() {
+        stockStreamService.flush();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ats.ecommerce.job;
+
+import com.ats.ecommerce.service.OrderExpiryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cancels orders left PENDING past the payment window (e.g. an abandoned Stripe
+ * checkout) and returns their stock, in fixed-size chunks, each in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnpaidOrderExpiryJob {
+
+    private final OrderExpiryService orderExpiryService;
+
+    @Value("${app.orders.expiry.pending-minutes:60}")
+    private int pendingMinutes;
+
+    // Extra wait so a Stripe session can never be paid after its order was cancelled
+    @Value("${app.orders.expiry.grace-minutes:5}")
+    private int graceMinutes;
+
+    @Value("${app.orders.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval-ms:60000}")
+    public void expireUnpaidOrders() {
+        if (!orderExpiryService.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(pendingMinutes + graceMinutes);
+        int expired;
+        do {
+            expired = orderExpiryService.expireBatch(cutoff, batchSize);
+        } while (expired == batchSize);
+    }
+}
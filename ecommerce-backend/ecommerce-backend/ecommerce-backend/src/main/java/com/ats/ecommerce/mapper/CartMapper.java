@@ -2,9 +2,13 @@ package com.ats.ecommerce.mapper;
 
 import com.ats.ecommerce.dto.cart.CartDto;
 import com.ats.ecommerce.dto.cart.CartItemDto;
+import com.ats.ecommerce.dto.cart.CartLineDto;
+import com.ats.ecommerce.dto.cart.CartViewDto;
 import com.ats.ecommerce.entity.Cart;
+import com.ats.ecommerce.repository.projection.CartLineView;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Component
@@ -23,8 +27,37 @@ public class CartMapper {
 
         return new CartDto(
                 cart.getId(),
-                items
+                items,
+                cart.getVersion()
         );
     }
-}
 
+    public CartViewDto toViewDto(List<CartLineView> rows) {
+        if (rows == null || rows.isEmpty()) return null;
+
+        // An empty cart comes back as a single row without a product
+        List<CartLineDto> items = rows.stream()
+                .filter(row -> row.getProductId() != null)
+                .map(row -> new CartLineDto(
+                        row.getProductId(),
+                        row.getSku(),
+                        row.getProductName(),
+                        row.getImageUrl(),
+                        row.getCurrentPrice(),
+                        row.getQuantity(),
+                        row.getStockQuantity() != null ? row.getStockQuantity() : 0,
+                        row.getCurrentPrice().multiply(BigDecimal.valueOf(row.getQuantity()))
+                ))
+                .toList();
+
+        return new CartViewDto(
+                rows.get(0).getCartId(),
+                items,
+                items.stream().mapToInt(CartLineDto::getQuantity).sum(),
+                items.stream()
+                        .map(CartLineDto::getLineTotal)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add),
+                rows.get(0).getCartVersion()
+        );
+    }
+}
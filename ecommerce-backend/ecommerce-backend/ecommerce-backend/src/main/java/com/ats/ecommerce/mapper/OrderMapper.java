@@ -1,12 +1,26 @@
 package com.ats.ecommerce.mapper;
 
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderHistoryDto;
+import com.ats.ecommerce.dto.order.OrderIntentDto;
 import com.ats.ecommerce.dto.order.OrderItemDto;
 import com.ats.ecommerce.dto.order.OrderResponseDto;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
+import com.ats.ecommerce.entity.ArchivedOrder;
 import com.ats.ecommerce.entity.Order;
+import com.ats.ecommerce.entity.OrderIntent;
+import com.ats.ecommerce.entity.OrderSummary;
+import com.ats.ecommerce.repository.projection.OrderItemRowView;
+import com.ats.ecommerce.repository.projection.OrderRowView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**Component
 public class OrderMapper {
@@ -35,8 +49,14 @@ public class OrderMapper {
 }**/
 
 @Component
+@RequiredArgsConstructor
 public class OrderMapper {
 
+    private static final TypeReference<List<OrderItemDto>> ITEM_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
     public OrderDto toDto(Order order) {
         return new OrderDto(
                 order.getId(),
@@ -45,12 +65,102 @@ public class OrderMapper {
                 order.getItems().stream()
                         .map(i -> new OrderItemDto(
                                 i.getProduct().getId(),
+                                i.getSku(),
+                                i.getProductName(),
+                                i.getImageUrl(),
                                 i.getQuantity(),
                                 i.getPrice()
                         ))
                         .toList()
         );
     }
-}
 
+    public OrderDto toDto(ArchivedOrder order, List<OrderItemRowView> items) {
+        return new OrderDto(
+                order.getId(),
+                order.getStatus().name(),
+                order.getTotalAmount(),
+                items.stream()
+                        .map(this::toItemDto)
+                        .toList()
+        );
+    }
+
+    public OrderIntentDto toIntentDto(OrderIntent intent) {
+        return new OrderIntentDto(
+                intent.getId(),
+                intent.getCartId(),
+                intent.getStatus().name(),
+                intent.getOrderId(),
+                intent.getFailureReason(),
+                intent.getCreatedAt(),
+                intent.getUpdatedAt()
+        );
+    }
+
+    public List<OrderHistoryDto> toHistoryDtos(List<OrderRowView> orders, List<OrderItemRowView> items) {
+        Map<Long, List<OrderItemDto>> itemsByOrder = items.stream()
+                .collect(Collectors.groupingBy(
+                        OrderItemRowView::getOrderId,
+                        Collectors.mapping(
+                                this::toItemDto,
+                                Collectors.toList()
+                        )
+                ));
 
+        return orders.stream()
+                .map(o -> new OrderHistoryDto(
+                        o.getOrderId(),
+                        o.getUserId(),
+                        o.getStatus().name(),
+                        o.getTotalAmount(),
+                        o.getCreatedAt(),
+                        itemsByOrder.getOrDefault(o.getOrderId(), List.of())
+                ))
+                .toList();
+    }
+
+    public OrderSummaryDto toSummaryDto(OrderSummary summary) {
+        return new OrderSummaryDto(
+                summary.getOrderId(),
+                summary.getUserId(),
+                summary.getStatus().name(),
+                summary.getTotalAmount(),
+                summary.getItemCount(),
+                summary.getPaymentStatus() != null ? summary.getPaymentStatus().name() : null,
+                summary.getShipmentStatus() != null ? summary.getShipmentStatus().name() : null,
+                summary.getCreatedAt(),
+                readItems(summary.getItemsJson())
+        );
+    }
+
+    public OrderItemDto toItemDto(OrderItemRowView item) {
+        return new OrderItemDto(
+                item.getProductId(),
+                item.getSku(),
+                item.getProductName(),
+                item.getImageUrl(),
+                item.getQuantity(),
+                item.getPrice()
+        );
+    }
+
+    public String writeItems(List<OrderItemDto> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order items", e);
+        }
+    }
+
+    public List<OrderItemDto> readItems(String itemsJson) {
+        if (itemsJson == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(itemsJson, ITEM_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read order items", e);
+        }
+    }
+}
@@ -27,7 +27,7 @@ public class ProductMapper {
                 product.isActive(),
                 categoryMapper.toDto(product.getCategory()),
                 product.getInventory() != null
-                        ? product.getInventory().getQuantity()
+                        ? product.getInventory().getQuantity() - product.getInventory().getReserved()
                         : 0
         );
     }
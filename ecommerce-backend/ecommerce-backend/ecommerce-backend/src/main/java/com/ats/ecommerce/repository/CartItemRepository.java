@@ -1,8 +1,12 @@
 package com.ats.ecommerce.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ats.ecommerce.entity.CartItem;
@@ -11,5 +15,19 @@ import com.ats.ecommerce.entity.CartItem;
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+
+    // Removes every line of a cart in a single statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+
+    // Reprices every line of the given products at the current catalog price
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE cart_items ci " +
+            "JOIN products p ON p.id = ci.product_id " +
+            "SET ci.unit_price = p.price, ci.total_price = p.price * ci.quantity " +
+            "WHERE ci.product_id IN (:productIds)",
+            nativeQuery = true)
+    int repriceByProductIds(@Param("productIds") Collection<Long> productIds);
 }
 
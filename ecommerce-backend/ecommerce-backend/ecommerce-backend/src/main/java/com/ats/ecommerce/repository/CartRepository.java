@@ -1,9 +1,13 @@
 package com.ats.ecommerce.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.repository.projection.CartLineView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +26,59 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
            "LEFT JOIN FETCH i.product " +
            "WHERE c.id = :cartId")
     Optional<Cart> findByIdWithItems(@Param("cartId") Long cartId);
-}
\ No newline at end of file
+
+    @Query("SELECT c FROM Cart c " +
+           "LEFT JOIN FETCH c.items i " +
+           "LEFT JOIN FETCH i.product " +
+           "WHERE c.user.id = :userId")
+    Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
+
+    // Cart view rows: one per line, product and stock joined in the same statement
+    @Query("SELECT c.id AS cartId, c.version AS cartVersion, p.id AS productId, p.sku AS sku, p.name AS productName, " +
+           "p.imageUrl AS imageUrl, p.price AS currentPrice, i.unitPrice AS unitPrice, i.quantity AS quantity, " +
+           "inv.quantity - inv.reserved AS stockQuantity " +
+           "FROM Cart c " +
+           "LEFT JOIN c.items i " +
+           "LEFT JOIN i.product p " +
+           "LEFT JOIN p.inventory inv " +
+           "WHERE c.id = :cartId " +
+           "ORDER BY i.id")
+    List<CartLineView> findCartLines(@Param("cartId") Long cartId);
+
+    @Query("SELECT c.user.id FROM Cart c WHERE c.id = :cartId")
+    Optional<Long> findOwnerId(@Param("cartId") Long cartId);
+
+    @Query("SELECT c.version FROM Cart c WHERE c.id = :cartId")
+    Optional<Long> findVersion(@Param("cartId") Long cartId);
+
+    @Query("SELECT c.id AS cartId, c.version AS cartVersion, p.id AS productId, p.sku AS sku, p.name AS productName, " +
+           "p.imageUrl AS imageUrl, p.price AS currentPrice, i.unitPrice AS unitPrice, i.quantity AS quantity, " +
+           "inv.quantity - inv.reserved AS stockQuantity " +
+           "FROM Cart c " +
+           "LEFT JOIN c.items i " +
+           "LEFT JOIN i.product p " +
+           "LEFT JOIN p.inventory inv " +
+           "WHERE c.user.id = :userId " +
+           "ORDER BY i.id")
+    List<CartLineView> findCartLinesByUserId(@Param("userId") Long userId);
+
+    // Recomputes totals of carts holding any of the products; bumps the version so stale If-Match fails
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE carts c " +
+           "JOIN (SELECT ci.cart_id, SUM(ci.total_price) AS total FROM cart_items ci " +
+           "      WHERE ci.cart_id IN (SELECT x.cart_id FROM cart_items x WHERE x.product_id IN (:productIds)) " +
+           "      GROUP BY ci.cart_id) t ON t.cart_id = c.id " +
+           "SET c.total_amount = t.total, c.version = COALESCE(c.version, 0) + 1, c.updated_at = NOW()",
+           nativeQuery = true)
+    int recalculateTotalsForProducts(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE carts SET total_amount = 0, updated_at = NOW(), version = COALESCE(version, 0) + 1 " +
+           "WHERE id = :cartId",
+           nativeQuery = true)
+    int markCleared(@Param("cartId") Long cartId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Cart c WHERE c.id = :cartId")
+    int deleteCartById(@Param("cartId") Long cartId);
+}
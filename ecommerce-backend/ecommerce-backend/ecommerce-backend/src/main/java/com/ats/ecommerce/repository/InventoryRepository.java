@@ -1,10 +1,121 @@
 package com.ats.ecommerce.repository;
 
 import com.ats.ecommerce.entity.Inventory;
+import com.ats.ecommerce.repository.projection.LowStockView;
+import com.ats.ecommerce.repository.projection.StockLevelView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<Inventory,Long> {
     Optional<Inventory> findByProductId(Long productId);
+
+    // Plain (non-locking) read of on-hand and held units
+    @Query("SELECT i.product.id AS productId, i.quantity AS quantity, i.reserved AS reserved, " +
+            "i.shardCount AS shardCount " +
+            "FROM Inventory i WHERE i.product.id = :productId")
+    Optional<StockLevelView> findStockLevel(@Param("productId") Long productId);
+
+    @Query("SELECT i.product.id AS productId, i.quantity AS quantity, i.reserved AS reserved, " +
+            "i.shardCount AS shardCount " +
+            "FROM Inventory i WHERE i.product.id IN :productIds")
+    List<StockLevelView> findStockLevels(@Param("productIds") Collection<Long> productIds);
+
+    // Same as findStockLevels but holds the row locks until commit, in product id order
+    @Query(value = "SELECT product_id AS productId, quantity AS quantity, reserved AS reserved, " +
+            "shard_count AS shardCount " +
+            "FROM inventory WHERE product_id IN (:productIds) ORDER BY product_id FOR UPDATE",
+            nativeQuery = true)
+    List<StockLevelView> lockStockLevels(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT i.shardCount FROM Inventory i WHERE i.product.id = :productId")
+    Optional<Integer> findShardCount(@Param("productId") Long productId);
+
+    // Takes stock for an order only if enough unheld stock is left; 0 rows means insufficient
+    // stock or a hot SKU whose stock lives in inventory_shards
+    @Modifying
+    @Query(value = "UPDATE inventory SET quantity = quantity - :quantity " +
+            "WHERE product_id = :productId AND shard_count = 0 AND quantity - reserved >= :quantity",
+            nativeQuery = true)
+    int decrementIfAvailable(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Writes only the quantity, so holds, shard count and alert flags set meanwhile survive
+    @Modifying
+    @Query(value = "UPDATE inventory SET quantity = :quantity WHERE product_id = :productId",
+            nativeQuery = true)
+    int setQuantity(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "UPDATE inventory SET quantity = quantity + :quantity " +
+            "WHERE product_id = :productId AND shard_count = 0",
+            nativeQuery = true)
+    int increment(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Takes a soft hold only if enough unheld stock is left; 0 rows means insufficient stock
+    @Modifying
+    @Query(value = "UPDATE inventory SET reserved = reserved + :quantity " +
+            "WHERE product_id = :productId AND shard_count = 0 AND quantity - reserved >= :quantity",
+            nativeQuery = true)
+    int reserveIfAvailable(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "UPDATE inventory SET reserved = GREATEST(reserved - :quantity, 0) " +
+            "WHERE product_id = :productId",
+            nativeQuery = true)
+    int releaseReserved(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Returns the held units of the given holds to their products in one statement
+    @Modifying
+    @Query(value = "UPDATE inventory i " +
+            "JOIN (SELECT product_id, SUM(quantity) AS held FROM stock_holds " +
+            "      WHERE id IN (:holdIds) GROUP BY product_id) h ON h.product_id = i.product_id " +
+            "SET i.reserved = GREATEST(i.reserved - h.held, 0)",
+            nativeQuery = true)
+    int releaseHolds(@Param("holdIds") Collection<Long> holdIds);
+
+    // Returns the stock of the given orders' lines to their products in one statement;
+    // hot SKUs are skipped and restocked through their shards
+    @Modifying
+    @Query(value = "UPDATE inventory i " +
+            "JOIN (SELECT product_id, SUM(quantity) AS ordered FROM order_items " +
+            "      WHERE order_id IN (:orderIds) GROUP BY product_id) o ON o.product_id = i.product_id " +
+            "SET i.quantity = i.quantity + o.ordered " +
+            "WHERE i.shard_count = 0",
+            nativeQuery = true)
+    int restockOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reorderThreshold = :threshold WHERE i.product.id = :productId")
+    int updateReorderThreshold(@Param("productId") Long productId, @Param("threshold") Integer threshold);
+
+    // Products among the given ones that are below their threshold and not alerted yet
+    @Query("SELECT i.product.id AS productId, i.product.name AS productName, i.quantity AS quantity, " +
+            "i.reorderThreshold AS reorderThreshold " +
+            "FROM Inventory i " +
+            "WHERE i.product.id IN :productIds AND i.lowStockAlerted = false " +
+            "AND i.quantity < i.reorderThreshold")
+    List<LowStockView> findNewlyLow(@Param("productIds") Collection<Long> productIds);
+
+    // Re-arms the alert of products that are back at or above their threshold
+    @Modifying
+    @Query(value = "UPDATE inventory SET low_stock_alerted = FALSE " +
+            "WHERE product_id IN (:productIds) AND low_stock_alerted = TRUE " +
+            "AND (reorder_threshold IS NULL OR quantity >= reorder_threshold)",
+            nativeQuery = true)
+    int rearmLowStock(@Param("productIds") Collection<Long> productIds);
+
+    // Mirrors the shard totals of hot SKUs into inventory.quantity for catalogue reads
+    @Modifying
+    @Query(value = "UPDATE inventory i " +
+            "JOIN (SELECT product_id, SUM(quantity) AS total FROM inventory_shards GROUP BY product_id) s " +
+            "ON s.product_id = i.product_id " +
+            "SET i.quantity = s.total " +
+            "WHERE i.shard_count > 0 AND i.quantity <> s.total",
+            nativeQuery = true)
+    int refreshShardedTotals();
 }
@@ -0,0 +1,53 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.InventoryShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, Long> {
+
+    List<InventoryShard> findByProductIdOrderByShardNo(Long productId);
+
+    List<InventoryShard> findAllByOrderByProductIdAscShardNoAsc();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId ORDER BY s.shardNo")
+    List<InventoryShard> lockByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM InventoryShard s WHERE s.productId = :productId")
+    int sumQuantity(@Param("productId") Long productId);
+
+    @Modifying
+    @Query(value = "UPDATE inventory_shards SET quantity = quantity - :quantity " +
+            "WHERE product_id = :productId AND shard_no = :shardNo AND quantity >= :quantity",
+            nativeQuery = true)
+    int decrementIfAvailable(@Param("productId") Long productId,
+                             @Param("shardNo") int shardNo,
+                             @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "UPDATE inventory_shards SET quantity = quantity + :quantity " +
+            "WHERE product_id = :productId AND shard_no = :shardNo",
+            nativeQuery = true)
+    int increment(@Param("productId") Long productId,
+                  @Param("shardNo") int shardNo,
+                  @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "UPDATE inventory_shards SET quantity = :quantity " +
+            "WHERE product_id = :productId AND shard_no = :shardNo",
+            nativeQuery = true)
+    int setQuantity(@Param("productId") Long productId,
+                    @Param("shardNo") int shardNo,
+                    @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM InventoryShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,11 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.LocationStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface LocationStockRepository extends JpaRepository<LocationStock, Long> {
+
+    List<LocationStock> findByProductIdOrderByWarehouseId(Long productId);
+}
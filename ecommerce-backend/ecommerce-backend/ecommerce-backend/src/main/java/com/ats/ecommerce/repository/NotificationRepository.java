@@ -0,0 +1,11 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.Notification;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+}
@@ -0,0 +1,29 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.OrderAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderAllocationRepository extends JpaRepository<OrderAllocation, Long> {
+
+    List<OrderAllocation> findByOrderIdOrderById(Long orderId);
+
+    // Puts the allocated units of the given orders back on their shelves in one statement
+    @Modifying
+    @Query(value = "UPDATE location_stock l " +
+            "JOIN (SELECT product_id, warehouse_id, SUM(quantity) AS allocated FROM order_allocations " +
+            "      WHERE order_id IN (:orderIds) GROUP BY product_id, warehouse_id) a " +
+            "ON a.product_id = l.product_id AND a.warehouse_id = l.warehouse_id " +
+            "SET l.quantity = l.quantity + a.allocated",
+            nativeQuery = true)
+    int restockOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM OrderAllocation a WHERE a.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,77 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.ArchivedOrder;
+import com.ats.ecommerce.repository.projection.OrderItemRowView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Moves closed orders with their items, payments and shipments into the *_archive
+ * tables with set-based INSERT ... SELECT / DELETE statements, one chunk of ids at a time.
+ */
+public interface OrderArchiveRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // SKIP LOCKED lets several nodes archive side by side without touching the same orders
+    @Query(value = "SELECT id FROM orders " +
+            "WHERE created_at < :cutoff AND status IN (:statuses) " +
+            "ORDER BY id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> claimArchivable(@Param("cutoff") LocalDateTime cutoff,
+                               @Param("statuses") Collection<String> statuses,
+                               @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, user_id, status, total_amount, created_at, archived_at) " +
+            "SELECT id, user_id, status, total_amount, created_at, NOW() FROM orders WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive " +
+            "(id, order_id, product_id, sku, product_name, image_url, quantity, price) " +
+            "SELECT id, order_id, product_id, sku, product_name, image_url, quantity, price " +
+            "FROM order_items WHERE order_id IN (:ids)",
+            nativeQuery = true)
+    int copyOrderItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO payments_archive (id, order_id, amount, status, provider, reference, created_at) " +
+            "SELECT id, order_id, amount, status, provider, reference, created_at FROM payments WHERE order_id IN (:ids)",
+            nativeQuery = true)
+    int copyPayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO shipments_archive (id, order_id, carrier, tracking_number, address, status) " +
+            "SELECT id, order_id, carrier, tracking_number, address, status FROM shipments WHERE order_id IN (:ids)",
+            nativeQuery = true)
+    int copyShipments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteOrderItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM payments WHERE order_id IN (:ids)", nativeQuery = true)
+    int deletePayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM shipments WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteShipments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteOrders(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.orderId AS orderId, i.productId AS productId, i.sku AS sku, " +
+            "i.productName AS productName, i.imageUrl AS imageUrl, i.quantity AS quantity, i.price AS price " +
+            "FROM ArchivedOrderItem i WHERE i.orderId = :orderId ORDER BY i.id")
+    List<OrderItemRowView> findItemRows(@Param("orderId") Long orderId);
+}
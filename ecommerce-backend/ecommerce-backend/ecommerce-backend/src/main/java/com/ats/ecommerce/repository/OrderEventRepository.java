@@ -0,0 +1,18 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    List<OrderEvent> findByOrderIdOrderById(Long orderId);
+
+    // Sequential replay: next chunk after the last id seen, in primary-key order
+    @Query("SELECT e FROM OrderEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OrderEvent> findChunkAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.OrderIntent;
+import com.ats.ecommerce.entity.enums.OrderIntentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderIntentRepository extends JpaRepository<OrderIntent, Long> {
+
+    Optional<OrderIntent> findByIdAndUserId(Long id, Long userId);
+
+    List<OrderIntent> findByStatusAndUpdatedAtBeforeOrderById(OrderIntentStatus status, LocalDateTime cutoff);
+
+    // Only moves an intent that is still in the expected status, so a re-queued intent runs once
+    @Modifying
+    @Query("UPDATE OrderIntent i SET i.status = :to, i.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE i.id = :id AND i.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") OrderIntentStatus from,
+                   @Param("to") OrderIntentStatus to);
+
+    @Modifying
+    @Query("UPDATE OrderIntent i SET i.status = :failed, i.failureReason = :failureReason, " +
+            "i.updatedAt = CURRENT_TIMESTAMP WHERE i.status = :status AND i.updatedAt < :cutoff")
+    int failStale(@Param("status") OrderIntentStatus status,
+                  @Param("failed") OrderIntentStatus failed,
+                  @Param("cutoff") LocalDateTime cutoff,
+                  @Param("failureReason") String failureReason);
+
+    @Modifying
+    @Query("UPDATE OrderIntent i SET i.status = :status, i.orderId = :orderId, " +
+            "i.failureReason = :failureReason, i.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE i.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") OrderIntentStatus status,
+                     @Param("orderId") Long orderId,
+                     @Param("failureReason") String failureReason);
+}
@@ -1,11 +1,20 @@
 package com.ats.ecommerce.repository;
 
 import com.ats.ecommerce.entity.Order;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.repository.projection.OrderItemRowView;
+import com.ats.ecommerce.repository.projection.OrderRowView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
@@ -13,4 +22,67 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     BigDecimal getTotalSales();
 
     long count();
+
+    // Compare-and-set status change; 0 rows means the order is missing or not in one of the from states
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id = :orderId AND o.status IN :from")
+    int transitionStatus(@Param("orderId") Long orderId,
+                         @Param("from") Collection<OrderStatus> from,
+                         @Param("to") OrderStatus to);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :orderId")
+    Optional<OrderStatus> findStatusById(@Param("orderId") Long orderId);
+
+    @Query("SELECT o.totalAmount FROM Order o WHERE o.id = :orderId")
+    Optional<BigDecimal> findTotalAmountById(@Param("orderId") Long orderId);
+
+    // Keyset page, newest first: rows strictly after the (createdAt, id) cursor.
+    // Served by idx_orders_user_created / idx_orders_status_created / idx_orders_created
+    @Query("SELECT o.id AS orderId, o.user.id AS userId, o.status AS status, " +
+            "o.totalAmount AS totalAmount, o.createdAt AS createdAt " +
+            "FROM Order o " +
+            "WHERE (:userId IS NULL OR o.user.id = :userId) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:cursorAt IS NULL OR o.createdAt < :cursorAt " +
+            "     OR (o.createdAt = :cursorAt AND o.id < :cursorId)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderRowView> findOrderPage(@Param("userId") Long userId,
+                                     @Param("status") OrderStatus status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("cursorAt") LocalDateTime cursorAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    // Unpaid orders past their deadline; SKIP LOCKED keeps concurrent sweepers on disjoint rows
+    @Query(value = "SELECT id FROM orders " +
+            "WHERE status = 'PENDING' AND created_at < :cutoff " +
+            "ORDER BY created_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> claimExpiredPending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE orders SET status = 'CANCELLED' WHERE id IN (:orderIds) AND status = 'PENDING'",
+            nativeQuery = true)
+    int cancelPending(@Param("orderIds") Collection<Long> orderIds);
+
+    // Lines of hot SKUs, whose stock lives in inventory_shards rather than inventory.quantity
+    @Query(value = "SELECT oi.order_id AS orderId, oi.product_id AS productId, oi.sku AS sku, " +
+            "oi.product_name AS productName, oi.image_url AS imageUrl, " +
+            "oi.quantity AS quantity, oi.price AS price " +
+            "FROM order_items oi JOIN inventory i ON i.product_id = oi.product_id " +
+            "WHERE oi.order_id IN (:orderIds) AND i.shard_count > 0",
+            nativeQuery = true)
+    List<OrderItemRowView> findShardedItemRows(@Param("orderIds") Collection<Long> orderIds);
+
+    // Line items of a whole page in one query, without loading products
+    @Query("SELECT oi.order.id AS orderId, oi.product.id AS productId, oi.sku AS sku, " +
+            "oi.productName AS productName, oi.imageUrl AS imageUrl, " +
+            "oi.quantity AS quantity, oi.price AS price " +
+            "FROM OrderItem oi WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemRowView> findItemRows(@Param("orderIds") Collection<Long> orderIds);
 }
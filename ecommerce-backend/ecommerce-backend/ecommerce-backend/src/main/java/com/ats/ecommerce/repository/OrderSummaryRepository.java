@@ -0,0 +1,40 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.OrderSummary;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.PaymentStatus;
+import com.ats.ecommerce.entity.enums.ShipmentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    List<OrderSummary> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    List<OrderSummary> findAllByOrderByCreatedAtDesc();
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.orderId = :orderId")
+    int updateStatus(@Param("orderId") Long orderId, @Param("status") OrderStatus status);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.orderId IN :orderIds")
+    int updateStatusIn(@Param("orderIds") Collection<Long> orderIds, @Param("status") OrderStatus status);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.paymentStatus = :paymentStatus, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.orderId = :orderId")
+    int updatePaymentStatus(@Param("orderId") Long orderId, @Param("paymentStatus") PaymentStatus paymentStatus);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.shipmentStatus = :shipmentStatus, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.orderId = :orderId")
+    int updateShipmentStatus(@Param("orderId") Long orderId, @Param("shipmentStatus") ShipmentStatus shipmentStatus);
+}
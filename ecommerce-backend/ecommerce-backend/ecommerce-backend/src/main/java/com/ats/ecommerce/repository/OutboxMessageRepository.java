@@ -0,0 +1,45 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Oldest undelivered first; parked messages (too many failures) are left out
+    @Query("SELECT m FROM OutboxMessage m " +
+            "WHERE m.publishedAt IS NULL AND m.attempts < :maxAttempts " +
+            "ORDER BY m.id")
+    List<OutboxMessage> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    // Empty if another node delivered it in the meantime
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM OutboxMessage m WHERE m.id = :id AND m.publishedAt IS NULL")
+    Optional<OutboxMessage> lockPending(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.attempts = m.attempts + 1, m.lastError = :error WHERE m.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    @Query("SELECT COUNT(m) FROM OutboxMessage m WHERE m.publishedAt IS NULL AND m.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT COUNT(m) FROM OutboxMessage m WHERE m.publishedAt IS NULL AND m.attempts >= :maxAttempts")
+    long countParked(@Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboxMessage m WHERE m.publishedAt IS NULL AND m.attempts < :maxAttempts")
+    LocalDateTime findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_messages WHERE published_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
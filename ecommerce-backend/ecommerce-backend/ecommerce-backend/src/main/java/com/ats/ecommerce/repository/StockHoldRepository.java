@@ -0,0 +1,36 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.StockHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    Optional<StockHold> findByCartIdAndProductId(Long cartId, Long productId);
+
+    List<StockHold> findByCartId(Long cartId);
+
+    // Claims the oldest lapsed holds; SKIP LOCKED lets several nodes sweep without double-releasing
+    @Query(value = "SELECT id FROM stock_holds " +
+            "WHERE expires_at <= :now " +
+            "ORDER BY expires_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> claimExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM StockHold h WHERE h.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM StockHold h WHERE h.cartId = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+}
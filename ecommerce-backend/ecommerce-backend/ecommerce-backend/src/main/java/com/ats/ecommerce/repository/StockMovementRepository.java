@@ -0,0 +1,50 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.StockMovement;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    // Range scan on (product_id, id): only the movements after the snapshot are read
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m " +
+            "WHERE m.productId = :productId AND m.id > :afterId AND m.type IN :types")
+    long sumSince(@Param("productId") Long productId,
+                  @Param("afterId") Long afterId,
+                  @Param("types") Collection<StockMovementType> types);
+
+    // Highest id among the oldest `limit` movements before the cutoff, or null if none
+    @Query(value = "SELECT MAX(id) FROM (SELECT id FROM stock_movements WHERE occurred_at < :cutoff " +
+            "ORDER BY id LIMIT :limit) m",
+            nativeQuery = true)
+    Long findCompactionBound(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // Adds every movement up to the bound to its product's snapshot in one statement
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (product_id, quantity, reserved, last_movement_id, taken_at) " +
+            "SELECT product_id, " +
+            "       SUM(CASE WHEN type IN ('RESERVATION', 'RESERVATION_RELEASE') THEN 0 ELSE quantity END), " +
+            "       SUM(CASE WHEN type IN ('RESERVATION', 'RESERVATION_RELEASE') THEN quantity ELSE 0 END), " +
+            "       MAX(id), NOW() " +
+            "FROM stock_movements WHERE id <= :upTo GROUP BY product_id " +
+            "ON DUPLICATE KEY UPDATE quantity = stock_snapshots.quantity + VALUES(quantity), " +
+            "reserved = stock_snapshots.reserved + VALUES(reserved), " +
+            "last_movement_id = GREATEST(stock_snapshots.last_movement_id, VALUES(last_movement_id)), " +
+            "taken_at = VALUES(taken_at)",
+            nativeQuery = true)
+    int foldIntoSnapshots(@Param("upTo") Long upTo);
+
+    @Modifying
+    @Query(value = "DELETE FROM stock_movements WHERE id <= :upTo", nativeQuery = true)
+    int deleteUpTo(@Param("upTo") Long upTo);
+}
@@ -0,0 +1,7 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+}
@@ -2,11 +2,17 @@ package com.ats.ecommerce.repository;
 
 import com.ats.ecommerce.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT DISTINCT u.id FROM User u JOIN u.roles r WHERE r.name = :roleName")
+    List<Long> findIdsByRoleName(@Param("roleName") String roleName);
 }
 
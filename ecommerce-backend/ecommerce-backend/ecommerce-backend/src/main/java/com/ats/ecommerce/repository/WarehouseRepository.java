@@ -0,0 +1,15 @@
+package com.ats.ecommerce.repository;
+
+import com.ats.ecommerce.entity.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    boolean existsByCodeIgnoreCase(String code);
+
+    List<Warehouse> findAllByOrderByPriorityAscIdAsc();
+
+    List<Warehouse> findByActiveTrueOrderByPriorityAscIdAsc();
+}
@@ -0,0 +1,31 @@
+package com.ats.ecommerce.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat row of a cart joined with its items, products and inventory.
+ * An empty cart yields a single row with only {@code cartId} populated.
+ */
+public interface CartLineView {
+
+    Long getCartId();
+
+    Long getCartVersion();
+
+    Long getProductId();
+
+    String getSku();
+
+    String getProductName();
+
+    String getImageUrl();
+
+    BigDecimal getCurrentPrice();
+
+    // Price the line was added at
+    BigDecimal getUnitPrice();
+
+    Integer getQuantity();
+
+    Integer getStockQuantity();
+}
@@ -0,0 +1,12 @@
+package com.ats.ecommerce.repository.projection;
+
+public interface LowStockView {
+
+    Long getProductId();
+
+    String getProductName();
+
+    Integer getQuantity();
+
+    Integer getReorderThreshold();
+}
@@ -0,0 +1,20 @@
+package com.ats.ecommerce.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface OrderItemRowView {
+
+    Long getOrderId();
+
+    Long getProductId();
+
+    String getSku();
+
+    String getProductName();
+
+    String getImageUrl();
+
+    Integer getQuantity();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,19 @@
+package com.ats.ecommerce.repository.projection;
+
+import com.ats.ecommerce.entity.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface OrderRowView {
+
+    Long getOrderId();
+
+    Long getUserId();
+
+    OrderStatus getStatus();
+
+    BigDecimal getTotalAmount();
+
+    LocalDateTime getCreatedAt();
+}
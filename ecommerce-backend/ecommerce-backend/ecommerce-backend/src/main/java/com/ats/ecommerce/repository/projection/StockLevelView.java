@@ -0,0 +1,12 @@
+package com.ats.ecommerce.repository.projection;
+
+public interface StockLevelView {
+
+    Long getProductId();
+
+    Integer getQuantity();
+
+    Integer getReserved();
+
+    Integer getShardCount();
+}
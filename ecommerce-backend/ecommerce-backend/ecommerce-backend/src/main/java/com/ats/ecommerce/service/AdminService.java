@@ -3,7 +3,10 @@ package com.ats.ecommerce.service;
 
 import com.ats.ecommerce.dto.admin.AdminDashboardDto;
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderPageDto;
 import com.ats.ecommerce.dto.order.OrderResponseDto;
+import com.ats.ecommerce.dto.order.OrderSearchRequest;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
 import com.ats.ecommerce.dto.product.ProductResponseDto;
 
 import java.util.List;
@@ -12,7 +15,9 @@ public interface AdminService {
 
     AdminDashboardDto getDashboardStats();
 
-    List<OrderDto> getAllOrders();
+    List<OrderSummaryDto> getAllOrders();
+
+    OrderPageDto searchOrders(OrderSearchRequest request);
 
     List<ProductResponseDto> getAllProducts();
 }
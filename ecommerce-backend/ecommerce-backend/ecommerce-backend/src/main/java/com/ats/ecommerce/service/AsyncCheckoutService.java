@@ -0,0 +1,21 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.order.OrderIntentDto;
+import com.ats.ecommerce.entity.User;
+
+public interface AsyncCheckoutService {
+
+    /**
+     * Queues a checkout and returns its intent straight away.
+     * Fails with TooManyRequestsException when the user's lane is full.
+     */
+    OrderIntentDto submit(Long cartId, User user);
+
+    OrderIntentDto getIntent(Long intentId, User user);
+
+    /**
+     * Re-queues intents that have been QUEUED and fails intents that have been
+     * PROCESSING for longer than {@code stale-seconds}, e.g. after a crash.
+     */
+    void recoverStale();
+}
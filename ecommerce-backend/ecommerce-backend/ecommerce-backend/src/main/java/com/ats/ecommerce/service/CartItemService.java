@@ -4,7 +4,8 @@ import com.ats.ecommerce.dto.cart.CartDto;
 import com.ats.ecommerce.dto.cart.CartItemDto;
 
 public interface CartItemService {
-    CartDto addItem(Long cartId, CartItemDto dto);
-    CartDto updateItem(Long cartId, CartItemDto dto);
-    CartDto removeItem(Long cartId, Long productId);
+    // expectedVersion comes from If-Match; null skips the precondition check
+    CartDto addItem(Long cartId, CartItemDto dto, Long expectedVersion);
+    CartDto updateItem(Long cartId, CartItemDto dto, Long expectedVersion);
+    CartDto removeItem(Long cartId, Long productId, Long expectedVersion);
 }
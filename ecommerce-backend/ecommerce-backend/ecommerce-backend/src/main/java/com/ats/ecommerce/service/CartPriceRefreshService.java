@@ -0,0 +1,13 @@
+package com.ats.ecommerce.service;
+
+import java.util.Collection;
+
+public interface CartPriceRefreshService {
+
+    /**
+     * Reprices every cart line holding one of the given products and recomputes
+     * the totals of the affected carts.
+     * @return number of cart lines rewritten
+     */
+    int refreshPrices(Collection<Long> productIds);
+}
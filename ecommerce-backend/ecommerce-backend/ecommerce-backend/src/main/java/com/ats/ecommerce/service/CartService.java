@@ -1,6 +1,7 @@
 package com.ats.ecommerce.service;
 
 import com.ats.ecommerce.dto.cart.CartDto;
+import com.ats.ecommerce.dto.cart.CartViewDto;
 import com.ats.ecommerce.entity.Cart;
 
 public interface CartService {
@@ -16,4 +17,8 @@ public interface CartService {
     void deleteCart(Long cartId);
     
     CartDto getCartByUserId(Long userId);
+    
+    CartViewDto getCartView(Long cartId);
+    
+    CartViewDto getCartViewByUserId(Long userId);
 }
\ No newline at end of file
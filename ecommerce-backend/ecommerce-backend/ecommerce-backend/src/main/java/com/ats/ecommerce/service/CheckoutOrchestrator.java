@@ -0,0 +1,14 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.payment.StripeCheckoutResponse;
+import com.ats.ecommerce.entity.User;
+
+public interface CheckoutOrchestrator {
+
+    /**
+     * Validates the cart and the customer concurrently, places the order, then opens a
+     * Stripe Checkout Session for it, all under one deadline. If anything fails after the
+     * order was placed, the order is cancelled (returning its stock) and the cart refilled.
+     */
+    StripeCheckoutResponse startStripeCheckout(Long cartId, User user);
+}
@@ -1,9 +1,17 @@
 package com.ats.ecommerce.service;
 
+import com.ats.ecommerce.dto.order.CheckoutPreflightDto;
 import com.ats.ecommerce.dto.order.OrderDto;
 import com.ats.ecommerce.entity.User;
 
 public interface CheckoutService {
     OrderDto checkout(Long cartId, User user);
+
+    /**
+     * Totals, per-line availability and price drift of the cart as checkout would see
+     * them now, without writing anything. Reused for a few seconds while the cart
+     * version is unchanged.
+     */
+    CheckoutPreflightDto preflight(Long cartId, User user);
 }
 
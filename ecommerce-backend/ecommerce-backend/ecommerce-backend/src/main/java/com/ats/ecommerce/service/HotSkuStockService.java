@@ -0,0 +1,50 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.inventory.InventoryResponseDto;
+
+/**
+ * Flash-sale mode for single products: stock is split over N inventory_shards rows
+ * so concurrent buyers update different rows instead of queueing on one.
+ */
+public interface HotSkuStockService {
+
+    InventoryResponseDto enable(Long productId, int shards);
+
+    InventoryResponseDto disable(Long productId);
+
+    /**
+     * Fast in-memory check; may lag behind another node enabling hot mode until
+     * {@link #refresh(Long)} or the next {@link #synchronize()}.
+     */
+    boolean isHot(Long productId);
+
+    /**
+     * Re-reads the product's mode from the database and loads its shards if hot.
+     * @return true if the product is in hot mode
+     */
+    boolean refresh(Long productId);
+
+    /**
+     * Takes stock from the product's shards within the current transaction.
+     * @return false when the shards together hold fewer than {@code quantity} units, in which
+     *         case nothing has been taken
+     */
+    boolean take(Long productId, int quantity);
+
+    void put(Long productId, int quantity);
+
+    int getQuantity(Long productId);
+
+    /**
+     * Replaces the product's stock with {@code quantity}, spread evenly over its shards.
+     * @return what the shards held before, read under their row locks so no take in
+     *         between is lost from the difference
+     */
+    int reset(Long productId, int quantity);
+
+    /**
+     * Reloads the in-memory counters, refills dry shards from the fullest one and
+     * mirrors shard totals into inventory.quantity.
+     */
+    void synchronize();
+}
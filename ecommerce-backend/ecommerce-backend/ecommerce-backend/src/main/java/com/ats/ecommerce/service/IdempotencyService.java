@@ -0,0 +1,19 @@
+package com.ats.ecommerce.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code action} once per (scope, principal, key). Replays return the stored
+     * response without running it again; a concurrent duplicate waits for the first
+     * execution. Failed executions are not stored, so the client may retry them.
+     * Without a key the action simply runs.
+     *
+     * @param fingerprint identifies the request; reusing a key for a different request is rejected
+     */
+    <T> T execute(String scope, String principal, String key, Object fingerprint,
+                  Class<T> responseType, Supplier<T> action);
+
+    int purgeExpired();
+}
@@ -1,8 +1,33 @@
 package com.ats.ecommerce.service;
 
+import com.ats.ecommerce.dto.inventory.BulkStockUpdateResultDto;
 import com.ats.ecommerce.dto.inventory.InventoryResponseDto;
+import com.ats.ecommerce.dto.inventory.StockAdjustmentDto;
+import com.ats.ecommerce.dto.inventory.StockLedgerDto;
+import com.ats.ecommerce.dto.warehouse.LocationStockDto;
+
+import java.util.List;
 
 public interface InventoryService {
     InventoryResponseDto getStock(Long productId);
     InventoryResponseDto updateStock(Long productId, int quantity);
+
+    /**
+     * Applies absolute or delta stock updates for many products in chunked JDBC batches,
+     * one transaction per chunk.
+     */
+    BulkStockUpdateResultDto bulkUpdate(List<StockAdjustmentDto> updates);
+
+    InventoryResponseDto setReorderThreshold(Long productId, Integer threshold);
+
+    StockLedgerDto getLedger(Long productId, int limit);
+
+    List<LocationStockDto> getLocations(Long productId);
+
+    /**
+     * Sets the units held at one warehouse and moves the product's total by the same amount.
+     */
+    InventoryResponseDto setLocationQuantity(Long productId, Long warehouseId, int quantity);
+    InventoryResponseDto enableHotSku(Long productId, int shards);
+    InventoryResponseDto disableHotSku(Long productId);
 }
@@ -0,0 +1,21 @@
+package com.ats.ecommerce.service;
+
+import java.util.Collection;
+
+public interface LowStockAlertService {
+
+    boolean isEnabled();
+
+    /**
+     * Marks products whose stock was just changed for evaluation. Inside a transaction
+     * they are only queued once it commits, so a rollback raises nothing.
+     */
+    void stockChanged(Collection<Long> productIds);
+
+    /**
+     * Checks up to batchSize queued products against their reorder thresholds and writes
+     * one notification per admin for each product that newly dropped below it.
+     * @return number of products checked
+     */
+    int evaluatePending(int batchSize);
+}
@@ -0,0 +1,12 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.notification.NotificationDto;
+
+import java.util.List;
+
+public interface NotificationService {
+
+    void notify(Long userId, String type, String message);
+
+    List<NotificationDto> getUserNotifications(Long userId);
+}
@@ -0,0 +1,20 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.order.OrderDto;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OrderArchiveService {
+
+    boolean isEnabled();
+
+    /**
+     * Moves up to {@code batchSize} closed orders created before {@code cutoff}, with
+     * their items, payments and shipments, into the archive tables in one transaction.
+     * @return number of orders archived
+     */
+    int archiveBatch(LocalDateTime cutoff, int batchSize);
+
+    Optional<OrderDto> findOrder(Long orderId);
+}
@@ -0,0 +1,23 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.admin.OrderBatchStatsDto;
+import com.ats.ecommerce.dto.order.OrderDto;
+
+import java.util.List;
+
+/**
+ * Group commit for order placement: concurrent checkouts collected over a short
+ * window are written in one transaction.
+ */
+public interface OrderBatchWriter {
+
+    boolean isEnabled();
+
+    /**
+     * Places the cart's order in the next group commit and returns once that commit
+     * is durable. Must be called outside a transaction.
+     */
+    OrderDto place(Long userId, Long cartId);
+
+    List<OrderBatchStatsDto> getStats();
+}
@@ -0,0 +1,25 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.admin.OrderReplayResultDto;
+import com.ats.ecommerce.dto.order.OrderEventDto;
+import com.ats.ecommerce.entity.enums.OrderEventType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface OrderEventService {
+
+    /**
+     * Records an event. Inside a transaction events are buffered and written as one
+     * JDBC batch just before commit, so they commit or roll back with the change.
+     */
+    void append(Long orderId, OrderEventType type, BigDecimal amount, String detail);
+
+    List<OrderEventDto> getTimeline(Long orderId);
+
+    /**
+     * Replays the whole log in id order, rebuilding the order status projection in
+     * order_summaries and the sales counters.
+     */
+    OrderReplayResultDto replay();
+}
@@ -0,0 +1,15 @@
+package com.ats.ecommerce.service;
+
+import java.time.LocalDateTime;
+
+public interface OrderExpiryService {
+
+    boolean isEnabled();
+
+    /**
+     * Cancels up to {@code batchSize} orders still PENDING that were created before
+     * {@code cutoff} and returns their stock, in one transaction.
+     * @return number of orders cancelled
+     */
+    int expireBatch(LocalDateTime cutoff, int batchSize);
+}
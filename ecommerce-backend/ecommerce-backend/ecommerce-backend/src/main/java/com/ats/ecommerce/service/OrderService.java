@@ -1,16 +1,28 @@
 package com.ats.ecommerce.service;
 
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderPageDto;
+import com.ats.ecommerce.dto.order.OrderSearchRequest;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
 import com.ats.ecommerce.entity.Cart;
 import com.ats.ecommerce.entity.Order;
 import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.entity.enums.OrderStatus;
 
 import java.util.List;
 
 public interface OrderService {
     Order placeOrder(User user, Cart cart);
     OrderDto getOrder(Long orderId);
-    List<OrderDto> getUserOrders(Long userId);
+    List<OrderSummaryDto> getUserOrders(Long userId);
+    OrderPageDto searchOrders(OrderSearchRequest request);
     void cancelOrder(Long orderId);
+
+    /**
+     * Moves the order to {@code target} if its current status allows it, in one
+     * conditional UPDATE.
+     * @return false if the order is missing or not in a state that may move to target
+     */
+    boolean transitionStatus(Long orderId, OrderStatus target);
 }
 
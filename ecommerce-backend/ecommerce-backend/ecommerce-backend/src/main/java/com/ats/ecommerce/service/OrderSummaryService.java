@@ -0,0 +1,34 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.order.OrderItemDto;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.PaymentStatus;
+import com.ats.ecommerce.entity.enums.ShipmentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the order_summaries read model. The write methods must be called in
+ * the transaction that changes the order, payment or shipment.
+ */
+public interface OrderSummaryService {
+
+    void orderPlaced(Long orderId, Long userId, BigDecimal totalAmount,
+                     LocalDateTime createdAt, List<OrderItemDto> items);
+
+    void statusChanged(Long orderId, OrderStatus status);
+
+    void statusChanged(Collection<Long> orderIds, OrderStatus status);
+
+    void paymentChanged(Long orderId, PaymentStatus status);
+
+    void shipmentChanged(Long orderId, ShipmentStatus status);
+
+    List<OrderSummaryDto> getUserOrders(Long userId);
+
+    List<OrderSummaryDto> getAllOrders();
+}
@@ -0,0 +1,29 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.admin.OutboxStatsDto;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface OutboxService {
+
+    /**
+     * Records an event for later delivery. Must be called in the transaction that
+     * makes the change, so the event exists if and only if the change committed.
+     */
+    void publish(AggregateType aggregateType, Long aggregateId, OutboxEventType type, Map<String, Object> payload);
+
+    /**
+     * Delivers up to one batch of pending messages in id order, each in its own
+     * transaction. After a failure the rest of that aggregate's messages wait for the
+     * next run, so each aggregate's events are seen in order.
+     * @return number of messages delivered
+     */
+    int relayBatch();
+
+    int purgePublished(LocalDateTime cutoff, int batchSize);
+
+    OutboxStatsDto getStats();
+}
@@ -0,0 +1,30 @@
+package com.ats.ecommerce.service;
+
+import java.util.Map;
+
+public interface StockHoldService {
+
+    boolean isEnabled();
+
+    /**
+     * Sets the hold for a cart line to the given quantity and restarts its TTL.
+     * Fails with InsufficientStockException when the extra units are not available.
+     */
+    void hold(Long cartId, Long productId, int quantity);
+
+    void release(Long cartId, Long productId);
+
+    void releaseCart(Long cartId);
+
+    /**
+     * Units the cart's own holds keep aside, per product. They are already subtracted
+     * from the available stock but are released when the cart checks out.
+     */
+    Map<Long, Integer> heldByCart(Long cartId);
+
+    /**
+     * Releases up to {@code batchSize} lapsed holds.
+     * @return number of holds released
+     */
+    int releaseExpired(int batchSize);
+}
@@ -0,0 +1,26 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.inventory.StockLedgerDto;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+
+import java.time.LocalDateTime;
+
+public interface StockLedgerService {
+
+    /**
+     * Appends a movement. Inside a transaction movements are buffered and written in one
+     * batch just before commit, so a rollback leaves no trace.
+     */
+    void record(Long productId, StockMovementType type, int quantity, String reference);
+
+    /**
+     * Reconciles the product's inventory row against snapshot + recent movements.
+     */
+    StockLedgerDto getLedger(Long productId, int limit);
+
+    /**
+     * Folds up to batchSize movements older than the cutoff into snapshots and deletes them.
+     * @return number of movements compacted
+     */
+    int compact(LocalDateTime cutoff, int batchSize);
+}
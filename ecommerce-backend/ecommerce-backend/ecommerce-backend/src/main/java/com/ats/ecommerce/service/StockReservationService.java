@@ -0,0 +1,26 @@
+package com.ats.ecommerce.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface StockReservationService {
+
+    /**
+     * Decrements stock for every product in the map or for none of them.
+     * Must run inside the caller's transaction; a shortfall on any line throws
+     * InsufficientStockException and rolls back the lines already taken.
+     */
+    void reserve(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Same as {@link #reserve(Map)} but reports a shortfall instead of throwing, so
+     * callers sharing a transaction with other work can undo just their own lines.
+     * @return the first product that was short; lines taken before it are not undone
+     */
+    Optional<Long> tryReserve(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Puts stock back, e.g. when an order is cancelled.
+     */
+    void release(Map<Long, Integer> quantitiesByProductId);
+}
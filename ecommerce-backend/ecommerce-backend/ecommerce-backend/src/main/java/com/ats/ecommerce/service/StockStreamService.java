@@ -0,0 +1,26 @@
+package com.ats.ecommerce.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+public interface StockStreamService {
+
+    /**
+     * Opens a server-sent events stream of stock levels for the given products. The
+     * current levels are sent right away, then changes as they happen.
+     */
+    SseEmitter subscribe(Collection<Long> productIds);
+
+    /**
+     * Marks products whose stock just changed. Inside a transaction they are only
+     * marked once it commits. Cheap when nobody watches the products.
+     */
+    void stockChanged(Collection<Long> productIds);
+
+    /**
+     * Pushes the current level of every marked product to its subscribers, at most one
+     * event per subscriber per call.
+     */
+    void flush();
+}
@@ -0,0 +1,49 @@
+package com.ats.ecommerce.service;
+
+import com.ats.ecommerce.dto.warehouse.LocationStockDto;
+import com.ats.ecommerce.dto.warehouse.OrderAllocationDto;
+import com.ats.ecommerce.dto.warehouse.WarehouseDto;
+import com.ats.ecommerce.dto.warehouse.WarehouseRequestDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-warehouse stock. Inventory.quantity is the denormalized total the catalogue reads;
+ * callers change it in the same transaction as the location rows.
+ */
+public interface WarehouseService {
+
+    List<WarehouseDto> getWarehouses();
+
+    WarehouseDto createWarehouse(WarehouseRequestDto request);
+
+    List<LocationStockDto> getLocations(Long productId);
+
+    /**
+     * Sets the units of a product held at one warehouse.
+     * @return the change, to be applied to the product's total
+     */
+    int setQuantity(Long productId, Long warehouseId, int quantity);
+
+    /**
+     * Applies stock changes that came without a location (manual counts, bulk sync,
+     * product edits): additions go to the default warehouse, removals are taken from
+     * the warehouses in priority order.
+     */
+    void absorb(Map<Long, Integer> deltasByProductId);
+
+    /**
+     * Picks the warehouses that ship each order, using as few warehouses per order as
+     * the stock allows, and takes the units from those locations.
+     */
+    void allocate(Map<Long, Map<Long, Integer>> linesByOrderId);
+
+    List<OrderAllocationDto> getAllocation(Long orderId);
+
+    /**
+     * Returns the allocated units of cancelled orders to their warehouses.
+     */
+    void release(Collection<Long> orderIds);
+}
@@ -1,15 +1,18 @@
 package com.ats.ecommerce.service.impl;
 
 import com.ats.ecommerce.dto.admin.AdminDashboardDto;
-import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderPageDto;
 import com.ats.ecommerce.dto.order.OrderResponseDto;
+import com.ats.ecommerce.dto.order.OrderSearchRequest;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
 import com.ats.ecommerce.dto.product.ProductResponseDto;
-import com.ats.ecommerce.mapper.OrderMapper;
 import com.ats.ecommerce.mapper.ProductMapper;
 import com.ats.ecommerce.repository.OrderRepository;
 import com.ats.ecommerce.repository.ProductRepository;
 import com.ats.ecommerce.repository.UserRepository;
 import com.ats.ecommerce.service.AdminService;
+import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.OrderSummaryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -22,8 +25,9 @@ public class AdminServiceImpl implements AdminService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final OrderMapper orderMapper;
     private final ProductMapper productMapper;
+    private final OrderService orderService;
+    private final OrderSummaryService orderSummaryService;
 
     @Override
     public AdminDashboardDto getDashboardStats() {
@@ -35,11 +39,13 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .map(orderMapper::toDto)
-                .toList();
+    public List<OrderSummaryDto> getAllOrders() {
+        return orderSummaryService.getAllOrders();
+    }
+
+    @Override
+    public OrderPageDto searchOrders(OrderSearchRequest request) {
+        return orderService.searchOrders(request);
     }
 
     @Override
@@ -0,0 +1,202 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderIntentDto;
+import com.ats.ecommerce.entity.OrderIntent;
+import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.entity.enums.OrderIntentStatus;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
+import com.ats.ecommerce.exception.TooManyRequestsException;
+import com.ats.ecommerce.mapper.OrderMapper;
+import com.ats.ecommerce.repository.OrderIntentRepository;
+import com.ats.ecommerce.repository.UserRepository;
+import com.ats.ecommerce.service.AsyncCheckoutService;
+import com.ats.ecommerce.service.CheckoutService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checkouts are spread over a fixed number of lanes, each a single worker thread
+ * with a bounded queue. A user always maps to the same lane, so their checkouts run
+ * in submission order, while different users proceed in parallel. A full lane
+ * rejects the submission instead of growing the backlog.
+ *
+ * Intents are persisted, the lanes are not. After a restart every QUEUED intent is
+ * queued again, and intents that stay QUEUED (a lane was full) or PROCESSING (the
+ * node died mid-checkout) past {@code stale-seconds} are picked up by the recovery
+ * job. A PROCESSING intent is completed in the order's transaction, so a stale one
+ * never placed its order and is failed for the client to retry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncCheckoutServiceImpl implements AsyncCheckoutService {
+
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private final CheckoutService checkoutService;
+    private final OrderIntentRepository orderIntentRepository;
+    private final UserRepository userRepository;
+    private final OrderMapper orderMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final List<ExecutorService> lanes = new ArrayList<>();
+
+    // Intents sitting in this node's lanes, so recovery does not queue them twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.checkout.async.lanes:4}")
+    private int laneCount;
+
+    @Value("${app.checkout.async.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.checkout.async.stale-seconds:300}")
+    private long staleSeconds;
+
+    @PostConstruct
+    void startLanes() {
+        for (int lane = 0; lane < laneCount; lane++) {
+            AtomicInteger threads = new AtomicInteger();
+            String name = "checkout-lane-" + lane;
+            lanes.add(new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, name + "-" + threads.incrementAndGet()),
+                    new ThreadPoolExecutor.AbortPolicy()
+            ));
+        }
+    }
+
+    @PreDestroy
+    void stopLanes() throws InterruptedException {
+        lanes.forEach(ExecutorService::shutdown);
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Checkout lane did not drain before shutdown");
+            }
+        }
+    }
+
+    @Override
+    public OrderIntentDto submit(Long cartId, User user) {
+        OrderIntent intent = new OrderIntent();
+        intent.setUserId(user.getId());
+        intent.setCartId(cartId);
+        OrderIntent saved = transactionTemplate.execute(status -> orderIntentRepository.save(intent));
+
+        if (!enqueue(saved.getId(), cartId, user)) {
+            transactionTemplate.executeWithoutResult(status -> orderIntentRepository.deleteById(saved.getId()));
+            throw new TooManyRequestsException("Checkout queue is full, please retry shortly");
+        }
+
+        return orderMapper.toIntentDto(saved);
+    }
+
+    @Override
+    public OrderIntentDto getIntent(Long intentId, User user) {
+        return orderIntentRepository.findByIdAndUserId(intentId, user.getId())
+                .map(orderMapper::toIntentDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Order intent not found"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void recoverAfterStartup() {
+        // Nothing is in this node's lanes yet, so every QUEUED intent is re-queued at once
+        recover(LocalDateTime.now());
+    }
+
+    @Override
+    public void recoverStale() {
+        recover(LocalDateTime.now().minusSeconds(staleSeconds));
+    }
+
+    private void recover(LocalDateTime queuedBefore) {
+        Integer failed = transactionTemplate.execute(status -> orderIntentRepository.failStale(
+                OrderIntentStatus.PROCESSING, OrderIntentStatus.FAILED,
+                LocalDateTime.now().minusSeconds(staleSeconds), "Checkout was interrupted, please retry"));
+        if (failed != null && failed > 0) {
+            log.warn("Failed {} async checkouts left in PROCESSING", failed);
+        }
+
+        int requeued = 0;
+        for (OrderIntent intent : orderIntentRepository.findByStatusAndUpdatedAtBeforeOrderById(
+                OrderIntentStatus.QUEUED, queuedBefore)) {
+            if (queued.contains(intent.getId())) {
+                continue;
+            }
+            User user = userRepository.findById(intent.getUserId()).orElse(null);
+            if (user == null) {
+                transactionTemplate.executeWithoutResult(status -> orderIntentRepository.updateStatus(
+                        intent.getId(), OrderIntentStatus.FAILED, null, "User not found"));
+            } else if (enqueue(intent.getId(), intent.getCartId(), user)) {
+                requeued++;
+            }
+            // A full lane leaves the intent QUEUED for the next recovery run
+        }
+        if (requeued > 0) {
+            log.info("Re-queued {} async checkouts", requeued);
+        }
+    }
+
+    private boolean enqueue(Long intentId, Long cartId, User user) {
+        queued.add(intentId);
+        try {
+            laneFor(user.getId()).execute(() -> process(intentId, cartId, user));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            queued.remove(intentId);
+            return false;
+        }
+    }
+
+    private void process(Long intentId, Long cartId, User user) {
+        queued.remove(intentId);
+        Integer claimed = transactionTemplate.execute(status -> orderIntentRepository.transition(
+                intentId, OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING));
+        if (claimed == null || claimed == 0) {
+            // Already picked up, e.g. by another node after a re-queue
+            return;
+        }
+        try {
+            // The intent is completed in the order's transaction, so it can never point
+            // at an order that was rolled back
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderDto order = checkoutService.checkout(cartId, user);
+                orderIntentRepository.updateStatus(intentId, OrderIntentStatus.COMPLETED, order.getOrderId(), null);
+            });
+        } catch (RuntimeException ex) {
+            log.info("Async checkout {} for cart {} failed: {}", intentId, cartId, ex.getMessage());
+            transactionTemplate.executeWithoutResult(status ->
+                    orderIntentRepository.updateStatus(intentId, OrderIntentStatus.FAILED, null, reason(ex)));
+        }
+    }
+
+    private ExecutorService laneFor(Long userId) {
+        return lanes.get(Math.floorMod(userId.hashCode(), lanes.size()));
+    }
+
+    private static String reason(RuntimeException ex) {
+        String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        return message.length() > MAX_REASON_LENGTH ? message.substring(0, MAX_REASON_LENGTH) : message;
+    }
+}
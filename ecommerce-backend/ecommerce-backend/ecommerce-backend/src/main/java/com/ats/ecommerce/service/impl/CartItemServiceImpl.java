@@ -5,85 +5,122 @@ import com.ats.ecommerce.dto.cart.CartItemDto;
 import com.ats.ecommerce.entity.Cart;
 import com.ats.ecommerce.entity.CartItem;
 import com.ats.ecommerce.entity.Product;
+import com.ats.ecommerce.exception.PreconditionFailedException;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.mapper.CartMapper;
 import com.ats.ecommerce.repository.CartItemRepository;
+import com.ats.ecommerce.repository.CartRepository;
 import com.ats.ecommerce.repository.ProductRepository;
 import com.ats.ecommerce.service.CartItemService;
 import com.ats.ecommerce.service.CartService;
+import com.ats.ecommerce.service.StockHoldService;
+import com.ats.ecommerce.util.OptimisticRetryExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Cart line mutations. Each call runs in its own transaction through
+ * {@link OptimisticRetryExecutor}, so a concurrent update from another tab is
+ * detected by the cart version and the call is replayed against fresh state.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class CartItemServiceImpl implements CartItemService {
 
     private final CartService cartService;
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
+    private final CartRepository cartRepository;
     private final CartMapper cartMapper;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final StockHoldService stockHoldService;
 
     @Override
-    public CartDto addItem(Long cartId, CartItemDto dto) {
-        Cart cart = cartService.getCartEntity(cartId);
-
-        Product product = productRepository.findById(dto.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        CartItem item = cart.getItems()
-                .stream()
-                .filter(i -> i.getProduct().getId().equals(dto.getProductId()))
-                .findFirst()
-                .orElse(new CartItem());
-
-        if (item.getId() == null) {
-            item.setProduct(product);
-            item.setQuantity(dto.getQuantity());
-            item.setUnitPrice(product.getPrice());
-            cart.getItems().add(item);
-            item.setCart(cart);
-        } else {
-            item.setQuantity(item.getQuantity() + dto.getQuantity());
-        }
-
-        item.setTotalPrice();
-        cartItemRepository.save(item);
-
-        return cartMapper.toDto(cart);
+    public CartDto addItem(Long cartId, CartItemDto dto, Long expectedVersion) {
+        return retryExecutor.execute(() -> {
+            Cart cart = getCartForWrite(cartId, expectedVersion);
+
+            Product product = productRepository.findById(dto.getProductId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+
+            CartItem item = cart.getItems()
+                    .stream()
+                    .filter(i -> i.getProduct().getId().equals(dto.getProductId()))
+                    .findFirst()
+                    .orElse(new CartItem());
+
+            if (item.getId() == null) {
+                item.setProduct(product);
+                item.setQuantity(dto.getQuantity());
+                item.setUnitPrice(product.getPrice());
+                cart.getItems().add(item);
+                item.setCart(cart);
+            } else {
+                item.setQuantity(item.getQuantity() + dto.getQuantity());
+            }
+
+            item.setTotalPrice();
+            cartItemRepository.save(item);
+            stockHoldService.hold(cartId, product.getId(), item.getQuantity());
+
+            return saveCart(cart);
+        });
     }
 
     @Override
-    public CartDto updateItem(Long cartId, CartItemDto dto) {
-        Cart cart = cartService.getCartEntity(cartId);
-
-        cart.getItems().stream()
-                .filter(i -> i.getProduct().getId().equals(dto.getProductId()))
-                .findFirst()
-                .ifPresent(item -> {
-                    item.setQuantity(dto.getQuantity());
-                    item.setUnitPrice(item.getProduct().getPrice());
-                    item.setTotalPrice();
-                });
-
-        return cartMapper.toDto(cart);
+    public CartDto updateItem(Long cartId, CartItemDto dto, Long expectedVersion) {
+        return retryExecutor.execute(() -> {
+            Cart cart = getCartForWrite(cartId, expectedVersion);
+
+            cart.getItems().stream()
+                    .filter(i -> i.getProduct().getId().equals(dto.getProductId()))
+                    .findFirst()
+                    .ifPresent(item -> {
+                        item.setQuantity(dto.getQuantity());
+                        item.setUnitPrice(item.getProduct().getPrice());
+                        item.setTotalPrice();
+                        stockHoldService.hold(cartId, dto.getProductId(), dto.getQuantity());
+                    });
+
+            return saveCart(cart);
+        });
     }
 
     @Override
-    public CartDto removeItem(Long cartId, Long productId) {
+    public CartDto removeItem(Long cartId, Long productId, Long expectedVersion) {
+        return retryExecutor.execute(() -> {
+            Cart cart = getCartForWrite(cartId, expectedVersion);
+
+            CartItem item = cart.getItems()
+                    .stream()
+                    .filter(i -> i.getProduct().getId().equals(productId))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
+
+            cart.getItems().remove(item);
+            cartItemRepository.delete(item);
+            stockHoldService.release(cartId, productId);
+
+            return saveCart(cart);
+        });
+    }
+
+    private Cart getCartForWrite(Long cartId, Long expectedVersion) {
         Cart cart = cartService.getCartEntity(cartId);
 
-        CartItem item = cart.getItems()
-                .stream()
-                .filter(i -> i.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found"));
+        if (expectedVersion != null && !expectedVersion.equals(cart.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Cart has been modified (current version " + cart.getVersion() + ")"
+            );
+        }
 
-        cart.getItems().remove(item);
-        cartItemRepository.delete(item);
+        return cart;
+    }
 
-        return cartMapper.toDto(cart);
+    // Flushing here bumps the version before it is mapped back to the client
+    private CartDto saveCart(Cart cart) {
+        cart.recalculateTotal();
+        cart.markUpdated();
+        return cartMapper.toDto(cartRepository.saveAndFlush(cart));
     }
 }
-
@@ -0,0 +1,48 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.event.ProductPriceChangedEvent;
+import com.ats.ecommerce.repository.CartItemRepository;
+import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.service.CartPriceRefreshService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartPriceRefreshServiceImpl implements CartPriceRefreshService {
+
+    private final CartItemRepository cartItemRepository;
+    private final CartRepository cartRepository;
+
+    @Override
+    @Transactional
+    public int refreshPrices(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+
+        // Totals are summed from the lines, so the lines must be repriced first
+        int lines = cartItemRepository.repriceByProductIds(productIds);
+        int carts = lines > 0 ? cartRepository.recalculateTotalsForProducts(productIds) : 0;
+
+        log.info("Repriced {} cart lines across {} carts for products {}", lines, carts, productIds);
+        return lines;
+    }
+
+    // Runs after the product update commits, off the admin's request thread
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductPriceChanged(ProductPriceChangedEvent event) {
+        refreshPrices(List.of(event.getProductId()));
+    }
+}
@@ -1,21 +1,24 @@
 package com.ats.ecommerce.service.impl;
 
 import com.ats.ecommerce.dto.cart.CartDto;
+import com.ats.ecommerce.dto.cart.CartViewDto;
 import com.ats.ecommerce.entity.Cart;
-import com.ats.ecommerce.entity.CartItem;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.ats.ecommerce.event.OutboxEvent;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.mapper.CartMapper;
 import com.ats.ecommerce.repository.CartItemRepository;
 import com.ats.ecommerce.repository.CartRepository;
 import com.ats.ecommerce.repository.UserRepository;
 import com.ats.ecommerce.service.CartService;
+import com.ats.ecommerce.service.StockHoldService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Slf4j
 @Service
@@ -27,6 +30,7 @@ public class CartServiceImpl implements CartService {
     private final UserRepository userRepository;
     private final CartItemRepository cartItemRepository;
     private final CartMapper cartMapper;
+    private final StockHoldService stockHoldService;
 
     @Override
     public Cart createCart(Long userId) {
@@ -56,60 +60,72 @@ public class CartServiceImpl implements CartService {
 
     @Override
     public void clearCart(Long cartId) {
-        Cart cart = getCartEntity(cartId);
-        
         log.info("Clearing cart ID: {}", cartId);
-        log.info("Cart has {} items before clearing", cart.getItems().size());
-        
-        // Get all cart items
-        List<CartItem> items = cart.getItems();
-        
-        if (items != null && !items.isEmpty()) {
-            // Clear the collection
-            cart.getItems().clear();
-            
-            // Explicitly delete all cart items from the database
-            cartItemRepository.deleteAll(items);
-            
-            // Recalculate total (will be zero)
-            cart.recalculateTotal();
-            
-            // Save the cart to ensure changes are persisted
-            cartRepository.save(cart);
-            
-            log.info("Cart cleared successfully. Deleted {} items. Cart entity preserved.", items.size());
-        } else {
-            log.info("Cart is already empty");
+
+        stockHoldService.releaseCart(cartId);
+
+        // One DELETE for all lines, then zero the total (cart entity preserved)
+        int deleted = cartItemRepository.deleteByCartId(cartId);
+
+        if (cartRepository.markCleared(cartId) == 0) {
+            throw new ResourceNotFoundException("Cart not found");
         }
+
+        log.info("Cart cleared successfully. Deleted {} items. Cart entity preserved.", deleted);
     }
 
     @Override
     public void deleteCart(Long cartId) {
-        Cart cart = getCartEntity(cartId);
-        
         log.info("Deleting cart ID: {}", cartId);
-        log.info("Cart has {} items before deletion", cart.getItems().size());
-        
-        // Get all cart items
-        List<CartItem> items = cart.getItems();
-        
-        if (items != null && !items.isEmpty()) {
-            // Delete all cart items first
-            cartItemRepository.deleteAll(items);
-            log.info("Deleted {} cart items", items.size());
+
+        stockHoldService.releaseCart(cartId);
+
+        int deleted = cartItemRepository.deleteByCartId(cartId);
+
+        if (cartRepository.deleteCartById(cartId) == 0) {
+            throw new ResourceNotFoundException("Cart not found");
+        }
+
+        log.info("Cart deleted successfully. Deleted {} items", deleted);
+    }
+
+    // Outbox subscriber: a paid order's cart is no longer needed; it may already be gone
+    @EventListener
+    public void onOutboxEvent(OutboxEvent event) {
+        if (event.getType() != OutboxEventType.PAYMENT_SUCCEEDED || !event.getPayload().hasNonNull("cartId")) {
+            return;
+        }
+        Long cartId = event.getPayload().get("cartId").asLong();
+        if (cartRepository.existsById(cartId)) {
+            deleteCart(cartId);
         }
-        
-        // Now delete the cart itself
-        cartRepository.delete(cart);
-        
-        log.info("Cart deleted successfully");
     }
 
     @Override
     @Transactional(readOnly = true)
     public CartDto getCartByUserId(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
             .orElseThrow(() -> new ResourceNotFoundException("Cart not found for user"));
         return cartMapper.toDto(cart);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartViewDto getCartView(Long cartId) {
+        CartViewDto view = cartMapper.toViewDto(cartRepository.findCartLines(cartId));
+        if (view == null) {
+            throw new ResourceNotFoundException("Cart not found");
+        }
+        return view;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartViewDto getCartViewByUserId(Long userId) {
+        CartViewDto view = cartMapper.toViewDto(cartRepository.findCartLinesByUserId(userId));
+        if (view == null) {
+            throw new ResourceNotFoundException("Cart not found for user");
+        }
+        return view;
+    }
 }
\ No newline at end of file
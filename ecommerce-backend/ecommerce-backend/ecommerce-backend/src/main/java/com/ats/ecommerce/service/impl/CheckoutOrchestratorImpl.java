@@ -0,0 +1,265 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.cart.CartItemDto;
+import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderItemDto;
+import com.ats.ecommerce.dto.payment.StripeCheckoutResponse;
+import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.exception.BadRequestException;
+import com.ats.ecommerce.exception.ForbiddenException;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
+import com.ats.ecommerce.exception.TooManyRequestsException;
+import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.repository.UserRepository;
+import com.ats.ecommerce.repository.projection.CartLineView;
+import com.ats.ecommerce.service.CartItemService;
+import com.ats.ecommerce.service.CheckoutOrchestrator;
+import com.ats.ecommerce.service.CheckoutService;
+import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.StockHoldService;
+import com.ats.ecommerce.util.StepScope;
+import com.stripe.Stripe;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.param.checkout.SessionCreateParams;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Stripe checkout as a set of steps on a bounded worker pool:
+ * <ol>
+ *     <li>cart and customer validation, concurrently (either failing cancels the other)</li>
+ *     <li>stock reservation and order placement, on the caller's thread</li>
+ *     <li>Stripe session creation for the placed order</li>
+ * </ol>
+ * One deadline covers all of them, but only the pooled steps are cancelled by it:
+ * an interrupted placement could still commit after the caller gave up, leaving an
+ * order nobody cancels. A placement that overruns leaves no time for the Stripe
+ * step, which then fails and the known order is compensated. Nothing runs inside a
+ * caller's transaction, so the Stripe round trip never holds database locks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheckoutOrchestratorImpl implements CheckoutOrchestrator {
+
+    private final CartRepository cartRepository;
+    private final UserRepository userRepository;
+    private final CheckoutService checkoutService;
+    private final OrderService orderService;
+    private final CartItemService cartItemService;
+    private final StockHoldService stockHoldService;
+
+    private ExecutorService steps;
+
+    @Value("${stripe.api.key}")
+    private String stripeApiKey;
+
+    @Value("${frontend.url:http://localhost:5173}")
+    private String frontendUrl;
+
+    @Value("${app.orders.expiry.pending-minutes:60}")
+    private int pendingMinutes;
+
+    @Value("${app.checkout.orchestrator.deadline-ms:10000}")
+    private long deadlineMs;
+
+    @Value("${app.checkout.orchestrator.threads:16}")
+    private int threadCount;
+
+    @Value("${app.checkout.orchestrator.queue-capacity:200}")
+    private int queueCapacity;
+
+    @PostConstruct
+    void startWorkers() {
+        AtomicInteger threads = new AtomicInteger();
+        steps = new ThreadPoolExecutor(
+                threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "checkout-step-" + threads.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        steps.shutdownNow();
+    }
+
+    @Override
+    public StripeCheckoutResponse startStripeCheckout(Long cartId, User user) {
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        OrderDto order = null;
+        List<CartLineView> lines;
+
+        try (StepScope scope = new StepScope(steps, Duration.ofMillis(deadlineMs))) {
+            try {
+                Supplier<List<CartLineView>> cart = scope.fork("cart", () -> validateCart(cartId, user.getId()));
+                scope.fork("customer", () -> validateCustomer(user.getId()));
+                scope.join();
+                lines = cart.get();
+
+                latencies.putAll(scope.latencies());
+
+                long orderStarted = System.nanoTime();
+                order = checkoutService.checkout(cartId, user);
+                latencies.put("order", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - orderStarted));
+
+                OrderDto forSession = order;
+                Supplier<Session> session = scope.fork("stripe-session", () -> createSession(forSession, cartId, user));
+                scope.join();
+
+                latencies.putAll(scope.latencies());
+                log.info("Stripe checkout for cart {} placed order {}; step latencies (ms): {}",
+                        cartId, order.getOrderId(), latencies);
+
+                return StripeCheckoutResponse.builder()
+                        .sessionId(session.get().getId())
+                        .sessionUrl(session.get().getUrl())
+                        .orderId(order.getOrderId())
+                        .status("PENDING")
+                        .stepLatencyMs(latencies)
+                        .build();
+            } catch (RuntimeException ex) {
+                latencies.putAll(scope.latencies());
+                log.info("Stripe checkout for cart {} failed after steps {} (ms): {}",
+                        cartId, latencies, ex.getMessage());
+                throw ex;
+            }
+        } catch (RuntimeException ex) {
+            if (order != null) {
+                compensate(order, cartId);
+            }
+            if (ex instanceof RejectedExecutionException) {
+                throw new TooManyRequestsException("Checkout is busy, please retry shortly");
+            }
+            throw ex;
+        }
+    }
+
+    private List<CartLineView> validateCart(Long cartId, Long userId) {
+        Long ownerId = cartRepository.findOwnerId(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        if (!ownerId.equals(userId)) {
+            throw new ForbiddenException("Unauthorized access to cart");
+        }
+
+        // An empty cart yields a single row without a product
+        List<CartLineView> lines = cartRepository.findCartLines(cartId).stream()
+                .filter(line -> line.getProductId() != null)
+                .toList();
+        if (lines.isEmpty()) {
+            throw new BadRequestException("Cart is empty - cannot create checkout session");
+        }
+
+        // Placement releases the cart's own holds before reserving, so they count as available
+        Map<Long, Integer> held = stockHoldService.heldByCart(cartId);
+        for (CartLineView line : lines) {
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new BadRequestException("Invalid quantity for product " + line.getProductId());
+            }
+            if (line.getCurrentPrice() == null || line.getCurrentPrice().signum() <= 0) {
+                throw new BadRequestException("Product " + line.getProductId() + " has no valid price");
+            }
+            // Early rejection only; the reservation step is what actually takes the stock
+            if (line.getStockQuantity() != null
+                    && line.getStockQuantity() + held.getOrDefault(line.getProductId(), 0) < line.getQuantity()) {
+                throw new InsufficientStockException(line.getProductId());
+            }
+        }
+        return lines;
+    }
+
+    private Void validateCustomer(Long userId) {
+        // Re-read: the principal may have been disabled or locked since the token was issued
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!user.isEnabled() || user.isLocked()) {
+            throw new ForbiddenException("Account cannot place orders");
+        }
+        if (user.getEmail() == null || user.getEmail().isBlank()) {
+            throw new BadRequestException("An email address is required for card checkout");
+        }
+        return null;
+    }
+
+    private Session createSession(OrderDto order, Long cartId, User user) {
+        Stripe.apiKey = stripeApiKey;
+
+        SessionCreateParams.Builder params = SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl(frontendUrl + "/checkout/checkout-success?session_id={CHECKOUT_SESSION_ID}")
+                .setCancelUrl(frontendUrl + "/checkout/cancel-order")
+                .setCustomerEmail(user.getEmail())
+                // Stripe accepts 30 minutes to 24 hours
+                .setExpiresAt(Instant.now()
+                        .plus(Duration.ofMinutes(Math.min(Math.max(pendingMinutes, 30), 24 * 60)))
+                        .getEpochSecond());
+
+        // Line items come from the placed order, so Stripe charges exactly what was reserved
+        for (OrderItemDto item : order.getItems()) {
+            SessionCreateParams.LineItem.PriceData.ProductData.Builder product =
+                    SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                            .setName(item.getProductName());
+
+            // Only add image if it's a valid HTTPS URL
+            if (item.getImageUrl() != null && item.getImageUrl().startsWith("https://")) {
+                product.addImage(item.getImageUrl());
+            }
+
+            params.addLineItem(SessionCreateParams.LineItem.builder()
+                    .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
+                            .setCurrency("zar")
+                            // Stripe uses the smallest currency unit
+                            .setUnitAmount(item.getPrice().multiply(BigDecimal.valueOf(100)).longValue())
+                            .setProductData(product.build())
+                            .build())
+                    .setQuantity((long) item.getQuantity())
+                    .build());
+        }
+
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("orderId", String.valueOf(order.getOrderId()));
+        metadata.put("userId", String.valueOf(user.getId()));
+        metadata.put("cartId", String.valueOf(cartId));
+        params.putAllMetadata(metadata);
+
+        try {
+            return Session.create(params.build());
+        } catch (StripeException e) {
+            throw new RuntimeException("Failed to create Stripe checkout session: " + e.getMessage(), e);
+        }
+    }
+
+    // Undoes the placement: the order's stock goes back and the lines return to the cart
+    private void compensate(OrderDto order, Long cartId) {
+        try {
+            orderService.cancelOrder(order.getOrderId());
+            for (OrderItemDto item : order.getItems()) {
+                cartItemService.addItem(cartId, new CartItemDto(item.getProductId(), item.getQuantity()), null);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not compensate order {} of cart {}", order.getOrderId(), cartId, ex);
+        }
+    }
+}
@@ -1,40 +1,162 @@
 package com.ats.ecommerce.service.impl;
 
+import com.ats.ecommerce.dto.order.CheckoutPreflightDto;
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.PreflightLineDto;
 import com.ats.ecommerce.entity.Cart;
 import com.ats.ecommerce.entity.Order;
 import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.event.StockLevelsChangedEvent;
+import com.ats.ecommerce.exception.ForbiddenException;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.mapper.OrderMapper;
 import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.repository.projection.CartLineView;
 import com.ats.ecommerce.service.CartService;
 import com.ats.ecommerce.service.CheckoutService;
+import com.ats.ecommerce.service.OrderBatchWriter;
 import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.StockHoldService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class CheckoutServiceImpl implements CheckoutService {
 
     private final CartService cartService;
     private final OrderService orderService;
-    private final CartRepository cartRepository;
     private final OrderMapper orderMapper;
+    private final StockHoldService stockHoldService;
+    private final OrderBatchWriter orderBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final CartRepository cartRepository;
+
+    // Latest preflight per cart; valid while the cart version matches and it hasn't expired
+    private final Map<Long, CachedPreflight> preflights = new ConcurrentHashMap<>();
+
+    @Value("${app.checkout.preflight.cache-seconds:3}")
+    private long preflightCacheSeconds;
 
     @Override
     public OrderDto checkout(Long cartId, User user) {
+        // Outside a transaction the order can share a group commit; callers that are
+        // already in one (e.g. async checkout) need the order inside it
+        if (orderBatchWriter.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return orderBatchWriter.place(user.getId(), cartId);
+        }
+        return transactionTemplate.execute(status -> placeOrder(cartId, user));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CheckoutPreflightDto preflight(Long cartId, User user) {
+        long now = System.nanoTime();
+        CachedPreflight cached = preflights.get(cartId);
+        if (cached != null && cached.userId().equals(user.getId()) && now < cached.expiresAtNanos()
+                && cached.preflight().getCartVersion().equals(cartRepository.findVersion(cartId).orElse(null))) {
+            return cached.preflight();
+        }
+
+        Long ownerId = cartRepository.findOwnerId(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        if (!ownerId.equals(user.getId())) {
+            throw new ForbiddenException("Unauthorized access to cart");
+        }
+
+        List<CartLineView> rows = cartRepository.findCartLines(cartId);
+        // Checkout releases the cart's own holds first, so they count as available to it
+        Map<Long, Integer> held = stockHoldService.heldByCart(cartId);
+        // An empty cart yields a single row without a product
+        List<PreflightLineDto> lines = rows.stream()
+                .filter(row -> row.getProductId() != null)
+                .map(row -> toPreflightLine(row, held.getOrDefault(row.getProductId(), 0)))
+                .toList();
+
+        BigDecimal cartTotal = lines.stream()
+                .map(line -> line.getCartUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = lines.stream()
+                .map(PreflightLineDto::getLineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        boolean priceChanged = lines.stream().anyMatch(PreflightLineDto::isPriceChanged);
+        boolean allAvailable = lines.stream().allMatch(PreflightLineDto::isAvailable);
+
+        CheckoutPreflightDto preflight = new CheckoutPreflightDto(
+                cartId,
+                rows.get(0).getCartVersion(),
+                cartTotal,
+                total,
+                priceChanged,
+                allAvailable,
+                !lines.isEmpty() && allAvailable,
+                lines
+        );
+
+        if (preflights.size() > 10_000) {
+            preflights.values().removeIf(entry -> now >= entry.expiresAtNanos());
+        }
+        preflights.put(cartId, new CachedPreflight(user.getId(), preflight,
+                now + TimeUnit.SECONDS.toNanos(preflightCacheSeconds)));
+
+        return preflight;
+    }
+
+    // Drops every cached preflight that shows one of the changed products, in a single pass
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelsChanged(StockLevelsChangedEvent event) {
+        Set<Long> changed = Set.copyOf(event.getProductIds());
+        preflights.values().removeIf(entry -> entry.preflight().getLines().stream()
+                .anyMatch(line -> changed.contains(line.getProductId())));
+    }
+
+    private static PreflightLineDto toPreflightLine(CartLineView row, int heldByCart) {
+        BigDecimal cartUnitPrice = row.getUnitPrice() != null ? row.getUnitPrice() : row.getCurrentPrice();
+        int available = row.getStockQuantity() != null ? Math.max(row.getStockQuantity() + heldByCart, 0) : 0;
+
+        return new PreflightLineDto(
+                row.getProductId(),
+                row.getSku(),
+                row.getProductName(),
+                row.getQuantity(),
+                cartUnitPrice,
+                row.getCurrentPrice(),
+                cartUnitPrice.compareTo(row.getCurrentPrice()) != 0,
+                available,
+                available >= row.getQuantity(),
+                row.getCurrentPrice().multiply(BigDecimal.valueOf(row.getQuantity()))
+        );
+    }
+
+    private record CachedPreflight(Long userId, CheckoutPreflightDto preflight, long expiresAtNanos) {
+    }
+
+    private OrderDto placeOrder(Long cartId, User user) {
         Cart cart = cartService.getCartEntity(cartId);
 
         if (cart.getItems().isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
 
+        // Hand the cart's held units back first so the order can take them
+        stockHoldService.releaseCart(cartId);
+
         Order order = orderService.placeOrder(user, cart);
 
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        // The order now owns the stock; drops the cart's lines and soft holds in bulk
+        cartService.clearCart(cartId);
 
         return orderMapper.toDto(order);
     }
@@ -0,0 +1,263 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.inventory.InventoryResponseDto;
+import com.ats.ecommerce.entity.Inventory;
+import com.ats.ecommerce.entity.InventoryShard;
+import com.ats.ecommerce.exception.BadRequestException;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.InventoryShardRepository;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.util.SavepointScope;
+import com.ats.ecommerce.util.ShardedStockCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Every take is a conditional UPDATE on one shard row, picked at random among the
+ * shards the in-memory counter believes can cover it. The counter is only moved
+ * after commit, so a rolled back order never leaves it out of step with the rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class HotSkuStockServiceImpl implements HotSkuStockService {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryShardRepository shardRepository;
+    private final ShardedStockCounter counter;
+
+    @Value("${app.inventory.hot-sku.max-shards:32}")
+    private int maxShards;
+
+    @Override
+    public InventoryResponseDto enable(Long productId, int shards) {
+        if (shards < 2 || shards > maxShards) {
+            throw new BadRequestException("Shard count must be between 2 and " + maxShards);
+        }
+
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+
+        if (inventory.getShardCount() > 0) {
+            throw new BadRequestException("Product " + productId + " is already in hot-SKU mode");
+        }
+
+        int[] split = split(inventory.getQuantity(), shards);
+        List<InventoryShard> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            rows.add(new InventoryShard(null, productId, shard, split[shard]));
+        }
+        shardRepository.saveAll(rows);
+
+        inventory.setShardCount(shards);
+        inventoryRepository.save(inventory);
+
+        afterCommit(() -> counter.load(productId, split));
+        log.info("Product {} switched to hot-SKU mode with {} shards", productId, shards);
+
+        return toDto(inventory, inventory.getQuantity());
+    }
+
+    @Override
+    public InventoryResponseDto disable(Long productId) {
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+
+        if (inventory.getShardCount() == 0) {
+            throw new BadRequestException("Product " + productId + " is not in hot-SKU mode");
+        }
+
+        // Lock the shard rows before folding them back so no take slips in between
+        int quantity = shardRepository.lockByProductId(productId).stream()
+                .mapToInt(InventoryShard::getQuantity)
+                .sum();
+
+        shardRepository.deleteByProductId(productId);
+        inventory.setQuantity(quantity);
+        inventory.setShardCount(0);
+        inventoryRepository.save(inventory);
+
+        afterCommit(() -> counter.evict(productId));
+        log.info("Product {} switched back to single-row stock", productId);
+
+        return toDto(inventory, quantity);
+    }
+
+    @Override
+    public boolean isHot(Long productId) {
+        return counter.isTracked(productId);
+    }
+
+    @Override
+    public boolean refresh(Long productId) {
+        int shards = inventoryRepository.findShardCount(productId).orElse(0);
+        if (shards == 0) {
+            counter.evict(productId);
+            return false;
+        }
+        counter.load(productId, quantities(shardRepository.findByProductIdOrderByShardNo(productId)));
+        return true;
+    }
+
+    @Override
+    public boolean take(Long productId, int quantity) {
+        if (!counter.isTracked(productId) && !refresh(productId)) {
+            return false;
+        }
+
+        // Common case: one shard covers the whole line
+        for (int attempt = 0; attempt < counter.shardCount(productId); attempt++) {
+            int shard = counter.pickShard(productId, quantity);
+            if (shard < 0) {
+                break;
+            }
+            if (shardRepository.decrementIfAvailable(productId, shard, quantity) == 1) {
+                afterCommit(() -> counter.add(productId, shard, -quantity));
+                return true;
+            }
+            // Counter was ahead of the row (another node sold from it); correct the hint
+            counter.set(productId, shard, 0);
+        }
+
+        // No single shard is big enough: collect from several, in shard order so two
+        // buyers doing this at once lock rows in the same order
+        Map<Integer, Integer> taken = new LinkedHashMap<>();
+        int remaining = quantity;
+        for (InventoryShard shard : shardRepository.findByProductIdOrderByShardNo(productId)) {
+            int amount = Math.min(shard.getQuantity(), remaining);
+            if (amount > 0 && shardRepository.decrementIfAvailable(productId, shard.getShardNo(), amount) == 1) {
+                taken.put(shard.getShardNo(), amount);
+                remaining -= amount;
+            }
+            if (remaining == 0) {
+                afterCommit(() -> taken.forEach((no, amt) -> counter.add(productId, no, -amt)));
+                return true;
+            }
+        }
+        // Short overall: put back what was collected so a false result leaves the shards untouched
+        taken.forEach((no, amt) -> shardRepository.increment(productId, no, amt));
+        return false;
+    }
+
+    @Override
+    public void put(Long productId, int quantity) {
+        if (!counter.isTracked(productId)) {
+            refresh(productId);
+        }
+        int shard = counter.randomShard(productId);
+        shardRepository.increment(productId, shard, quantity);
+        afterCommit(() -> counter.add(productId, shard, quantity));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getQuantity(Long productId) {
+        return shardRepository.sumQuantity(productId);
+    }
+
+    @Override
+    public int reset(Long productId, int quantity) {
+        List<InventoryShard> shards = shardRepository.lockByProductId(productId);
+        int previous = shards.stream().mapToInt(InventoryShard::getQuantity).sum();
+        int[] split = split(quantity, shards.size());
+        for (int shard = 0; shard < split.length; shard++) {
+            shardRepository.setQuantity(productId, shards.get(shard).getShardNo(), split[shard]);
+        }
+        afterCommit(() -> counter.load(productId, split));
+        return previous;
+    }
+
+    @Override
+    public void synchronize() {
+        Map<Long, List<InventoryShard>> shardsByProduct = shardRepository.findAllByOrderByProductIdAscShardNoAsc()
+                .stream()
+                .collect(Collectors.groupingBy(InventoryShard::getProductId, LinkedHashMap::new, Collectors.toList()));
+
+        shardsByProduct.forEach((productId, shards) -> {
+            rebalance(productId, shards);
+            counter.load(productId, quantities(shards));
+        });
+
+        Set<Long> stale = new HashSet<>(counter.trackedProducts());
+        stale.removeAll(shardsByProduct.keySet());
+        stale.forEach(counter::evict);
+
+        if (!shardsByProduct.isEmpty()) {
+            inventoryRepository.refreshShardedTotals();
+        }
+    }
+
+    // Refills each dry shard with half of the fullest shard, so buyers keep spreading
+    // over all rows instead of piling onto the last few with stock
+    private void rebalance(Long productId, List<InventoryShard> shards) {
+        for (InventoryShard dry : shards) {
+            if (dry.getQuantity() > 0) {
+                continue;
+            }
+            InventoryShard fullest = shards.stream()
+                    .max((a, b) -> Integer.compare(a.getQuantity(), b.getQuantity()))
+                    .orElseThrow();
+            int amount = fullest.getQuantity() / 2;
+            if (amount == 0) {
+                return;
+            }
+            if (shardRepository.decrementIfAvailable(productId, fullest.getShardNo(), amount) == 1) {
+                shardRepository.increment(productId, dry.getShardNo(), amount);
+                fullest.setQuantity(fullest.getQuantity() - amount);
+                dry.setQuantity(amount);
+            }
+        }
+    }
+
+    private static int[] split(int quantity, int shards) {
+        int[] split = new int[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            split[shard] = quantity / shards + (shard < quantity % shards ? 1 : 0);
+        }
+        return split;
+    }
+
+    private static int[] quantities(List<InventoryShard> shards) {
+        return shards.stream().mapToInt(InventoryShard::getQuantity).toArray();
+    }
+
+    private static InventoryResponseDto toDto(Inventory inventory, int quantity) {
+        return new InventoryResponseDto(
+                inventory.getProduct().getId(),
+                quantity,
+                inventory.getReserved(),
+                quantity - inventory.getReserved()
+        );
+    }
+
+    private static void afterCommit(Runnable action) {
+        // A take rolled back to a savepoint must not move the counter either
+        SavepointScope.defer(() -> {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                action.run();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,223 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.IdempotencyRecord;
+import com.ats.ecommerce.exception.BadRequestException;
+import com.ats.ecommerce.exception.DuplicateResourceException;
+import com.ats.ecommerce.repository.IdempotencyRecordRepository;
+import com.ats.ecommerce.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Three layers, cheapest first: a bounded LRU of completed responses, a map of
+ * in-flight executions on this node, and the idempotency_keys table, whose unique
+ * key also stops the same request running on two nodes at once.
+ *
+ * A claim row only holds the key for {@code lease-seconds}; the full TTL is set
+ * when the response is stored. A node that dies mid-request therefore blocks
+ * its key for one lease, after which the next request takes the claim over.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private Map<String, StoredResponse> cache;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${app.idempotency.wait-timeout-seconds:30}")
+    private long waitTimeoutSeconds;
+
+    @PostConstruct
+    void initCache() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public <T> T execute(String scope, String principal, String key, Object fingerprint,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = scope + '|' + principal + '|' + key;
+        String requestHash = DigestUtils.md5DigestAsHex(
+                String.valueOf(fingerprint).getBytes(StandardCharsets.UTF_8));
+
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null && !cached.isExpired()) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            Optional<StoredResponse> stored = findStored(scope, principal, key);
+            if (stored.isPresent()) {
+                cache.put(cacheKey, stored.get());
+                mine.complete(stored.get());
+                return replay(stored.get(), requestHash, responseType);
+            }
+
+            IdempotencyRecord claim = claim(scope, principal, key, requestHash);
+            T result;
+            try {
+                result = action.get();
+            } catch (RuntimeException ex) {
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyRecordRepository.deleteById(claim.getId()));
+                throw ex;
+            }
+
+            String body = write(result);
+            LocalDateTime expiresAt = LocalDateTime.now().plusHours(ttlHours);
+            Integer completed = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.complete(claim.getId(), body, expiresAt));
+            if (completed == null || completed == 0) {
+                log.warn("Idempotency claim for {} {} lapsed before its response was stored", scope, key);
+            }
+
+            StoredResponse response = new StoredResponse(requestHash, body, expiresAt);
+            cache.put(cacheKey, response);
+            mine.complete(response);
+            return result;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(response -> response.expiresAt().isBefore(now));
+        Integer purged = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(now));
+        return purged != null ? purged : 0;
+    }
+
+    private Optional<StoredResponse> findStored(String scope, String principal, String key) {
+        Optional<IdempotencyRecord> existing =
+                idempotencyRecordRepository.findByScopeAndPrincipalAndIdempotencyKey(scope, principal, key);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord record = existing.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (record.getExpiresAt().isBefore(now)) {
+            // An expired response, or the lapsed claim of a request that never finished
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.deleteIfExpired(record.getId(), now));
+            return Optional.empty();
+        }
+        if (record.getResponseBody() == null) {
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        }
+        return Optional.of(new StoredResponse(record.getRequestHash(), record.getResponseBody(), record.getExpiresAt()));
+    }
+
+    private IdempotencyRecord claim(String scope, String principal, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = new IdempotencyRecord(
+                null, scope, principal, key, requestHash, null, now, now.plusSeconds(leaseSeconds));
+        try {
+            return transactionTemplate.execute(status -> idempotencyRecordRepository.saveAndFlush(record));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node claimed the key between our lookup and insert
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new DuplicateResourceException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for duplicate request", ex);
+        }
+    }
+
+    private <T> T replay(StoredResponse response, String requestHash, Class<T> responseType) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(response.body(), responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response could not be read", ex);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response could not be stored for idempotent replay", ex);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body, LocalDateTime expiresAt) {
+
+        boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+}
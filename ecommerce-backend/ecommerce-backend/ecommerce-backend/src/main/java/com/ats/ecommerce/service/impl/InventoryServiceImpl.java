@@ -1,14 +1,47 @@
 package com.ats.ecommerce.service.impl;
 
+import com.ats.ecommerce.dto.inventory.BulkStockUpdateResultDto;
 import com.ats.ecommerce.dto.inventory.InventoryResponseDto;
-import com.ats.ecommerce.entity.Inventory;
+import com.ats.ecommerce.dto.inventory.StockAdjustmentDto;
+import com.ats.ecommerce.dto.inventory.StockAdjustmentResultDto;
+import com.ats.ecommerce.dto.inventory.StockLedgerDto;
+import com.ats.ecommerce.dto.warehouse.LocationStockDto;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.ats.ecommerce.entity.enums.StockAdjustmentMode;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.event.StockLevelsChangedEvent;
+import com.ats.ecommerce.exception.BadRequestException;
 import com.ats.ecommerce.repository.InventoryRepository;
 import com.ats.ecommerce.repository.ProductRepository;
+import com.ats.ecommerce.repository.projection.StockLevelView;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.LowStockAlertService;
 import com.ats.ecommerce.service.InventoryService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.WarehouseService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -16,24 +49,307 @@ public class InventoryServiceImpl implements InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
+    private final HotSkuStockService hotSkuStockService;
+    private final OutboxService outboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LowStockAlertService lowStockAlertService;
+    private final StockLedgerService stockLedgerService;
+    private final WarehouseService warehouseService;
+
+    // One statement for both modes keeps the rows of a batch in request order.
+    // Hot SKUs (shard_count > 0) never match; their stock lives in inventory_shards.
+    private static final String ADJUST_STOCK =
+            "UPDATE inventory SET quantity = CASE WHEN ? THEN ? ELSE quantity + ? END " +
+            "WHERE product_id = ? AND shard_count = 0 AND (? OR quantity + ? >= 0)";
+
+    @Value("${app.inventory.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.inventory.bulk.max-rows:100000}")
+    private int maxRows;
 
     @Override
+    @Transactional(readOnly = true)
     public InventoryResponseDto getStock(Long productId) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
+        StockLevelView level = inventoryRepository.findStockLevel(productId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found"));
 
-        return new InventoryResponseDto(productId, inventory.getQuantity());
+        int quantity = level.getShardCount() > 0
+                ? hotSkuStockService.getQuantity(productId)
+                : level.getQuantity();
+
+        return new InventoryResponseDto(
+                productId,
+                quantity,
+                level.getReserved(),
+                quantity - level.getReserved()
+        );
     }
 
     @Override
     public InventoryResponseDto updateStock(Long productId, int quantity) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
+        // Locked like the bulk path, then only the quantity column is written
+        StockLevelView level = inventoryRepository.lockStockLevels(List.of(productId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Inventory not found"));
 
-        inventory.setQuantity(quantity);
-        inventoryRepository.save(inventory);
+        // A hot SKU's stock is in its shards, which reset() locks before reading
+        int previous = level.getShardCount() > 0
+                ? hotSkuStockService.reset(productId, quantity)
+                : level.getQuantity();
+        inventoryRepository.setQuantity(productId, quantity);
+        stockLedgerService.record(productId, StockMovementType.ADJUSTMENT, quantity - previous, null);
+        warehouseService.absorb(Map.of(productId, quantity - previous));
+        outboxService.publish(AggregateType.PRODUCT, productId, OutboxEventType.STOCK_CHANGED,
+                Map.of("productId", productId, "quantity", quantity));
+        eventPublisher.publishEvent(new StockLevelsChangedEvent(List.of(productId)));
 
-        return new InventoryResponseDto(productId, quantity);
+        return new InventoryResponseDto(
+                productId,
+                quantity,
+                level.getReserved(),
+                quantity - level.getReserved()
+        );
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkStockUpdateResultDto bulkUpdate(List<StockAdjustmentDto> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new BadRequestException("No stock updates given");
+        }
+        if (updates.size() > maxRows) {
+            throw new BadRequestException("At most " + maxRows + " stock updates per request");
+        }
+
+        StockAdjustmentResultDto[] results = new StockAdjustmentResultDto[updates.size()];
+        Set<Long> changed = new LinkedHashSet<>();
+
+        // Each chunk commits on its own, so a late failure doesn't undo hours of work
+        for (int from = 0; from < updates.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, updates.size());
+            int offset = from;
+            transactionTemplate.executeWithoutResult(status ->
+                    applyChunk(updates.subList(offset, to), offset, results, changed));
+        }
+
+        // Cached stock (preflights, etc.) is dropped once for the whole request
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new StockLevelsChangedEvent(changed));
+        }
+
+        int applied = (int) Arrays.stream(results).filter(r -> "APPLIED".equals(r.getStatus())).count();
+        log.info("Bulk stock update: {} rows, {} applied, {} products changed", results.length, applied, changed.size());
+
+        return new BulkStockUpdateResultDto(results.length, applied, results.length - applied, Arrays.asList(results));
+    }
+
+    private void applyChunk(List<StockAdjustmentDto> chunk, int offset,
+                            StockAdjustmentResultDto[] results, Set<Long> changed) {
+        // Locked, so the ledger deltas below are exact even with orders coming in
+        Map<Long, StockLevelView> levels = inventoryRepository.lockStockLevels(chunk.stream()
+                        .map(StockAdjustmentDto::getProductId)
+                        .filter(id -> id != null)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(StockLevelView::getProductId, Function.identity()));
+
+        // Net change per product, handed to the warehouses once per chunk
+        Map<Long, Integer> moved = new HashMap<>();
+        List<Integer> batched = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            StockAdjustmentDto row = chunk.get(i);
+            StockLevelView level = row.getProductId() != null ? levels.get(row.getProductId()) : null;
+
+            String invalid = validate(row);
+            if (invalid != null) {
+                results[offset + i] = new StockAdjustmentResultDto(row.getProductId(), "INVALID", null, invalid);
+            } else if (level == null) {
+                results[offset + i] = new StockAdjustmentResultDto(row.getProductId(), "NOT_FOUND", null, "Inventory not found");
+            } else if (level.getShardCount() > 0) {
+                results[offset + i] = applyToShards(row, moved);
+            } else {
+                batched.add(i);
+            }
+        }
+
+        // A chunk of only hot, invalid or unknown rows has nothing to batch, and batchUpdate
+        // returns no sub-batch at all for it
+        int[] counts = batched.isEmpty() ? new int[0] : Arrays.stream(
+                jdbcTemplate.batchUpdate(ADJUST_STOCK, batched, chunkSize, (ps, i) -> {
+                    StockAdjustmentDto row = chunk.get(i);
+                    boolean set = mode(row) == StockAdjustmentMode.SET;
+                    ps.setBoolean(1, set);
+                    ps.setInt(2, row.getQuantity());
+                    ps.setInt(3, row.getQuantity());
+                    ps.setLong(4, row.getProductId());
+                    ps.setBoolean(5, set);
+                    ps.setInt(6, row.getQuantity());
+                }))
+                .flatMapToInt(Arrays::stream)
+                .toArray();
+
+        Map<Long, Integer> running = new HashMap<>();
+        for (int n = 0; n < batched.size(); n++) {
+            int i = batched.get(n);
+            StockAdjustmentDto row = chunk.get(i);
+            if (counts[n] == 0) {
+                results[offset + i] = new StockAdjustmentResultDto(row.getProductId(), "REJECTED", null,
+                        mode(row) == StockAdjustmentMode.DELTA
+                                ? "Stock cannot go below zero"
+                                : "Product switched to sharded stock, retry");
+            } else {
+                results[offset + i] = new StockAdjustmentResultDto(row.getProductId(), "APPLIED", null, null);
+                int current = running.getOrDefault(row.getProductId(), levels.get(row.getProductId()).getQuantity());
+                int next = mode(row) == StockAdjustmentMode.SET ? row.getQuantity() : current + row.getQuantity();
+                running.put(row.getProductId(), next);
+                recordAdjustment(row, next - current, moved);
+            }
+        }
+
+        warehouseService.absorb(moved);
+
+        // Report what each applied product holds now, read back in one query
+        Set<Long> applied = new LinkedHashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if ("APPLIED".equals(results[offset + i].getStatus())) {
+                applied.add(chunk.get(i).getProductId());
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        Map<Long, StockLevelView> after = inventoryRepository.findStockLevels(applied).stream()
+                .collect(Collectors.toMap(StockLevelView::getProductId, Function.identity()));
+        for (int i = 0; i < chunk.size(); i++) {
+            StockAdjustmentResultDto result = results[offset + i];
+            if ("APPLIED".equals(result.getStatus())) {
+                StockLevelView level = after.get(result.getProductId());
+                result.setQuantity(level.getShardCount() > 0
+                        ? hotSkuStockService.getQuantity(result.getProductId())
+                        : level.getQuantity());
+            }
+        }
+        changed.addAll(applied);
+    }
+
+    // Hot SKUs are rare; they go through their shards one row at a time
+    private StockAdjustmentResultDto applyToShards(StockAdjustmentDto row, Map<Long, Integer> moved) {
+        Long productId = row.getProductId();
+        int quantity = row.getQuantity();
+
+        if (mode(row) == StockAdjustmentMode.SET) {
+            int previous = hotSkuStockService.reset(productId, quantity);
+            recordAdjustment(row, quantity - previous, moved);
+        } else if (quantity > 0) {
+            hotSkuStockService.put(productId, quantity);
+            recordAdjustment(row, quantity, moved);
+        } else if (quantity < 0) {
+            // Reject on the shard total before touching any row; take() itself is all-or-nothing,
+            // so a row lost to a concurrent sale in between still leaves the shards unchanged
+            if (hotSkuStockService.getQuantity(productId) < -quantity
+                    || !hotSkuStockService.take(productId, -quantity)) {
+                return new StockAdjustmentResultDto(productId, "REJECTED", null, "Stock cannot go below zero");
+            }
+            recordAdjustment(row, quantity, moved);
+        }
+        return new StockAdjustmentResultDto(productId, "APPLIED", null, null);
+    }
+
+    // Positive deltas are goods received; absolute counts and write-offs are adjustments
+    private void recordAdjustment(StockAdjustmentDto row, int delta, Map<Long, Integer> moved) {
+        StockMovementType type = mode(row) == StockAdjustmentMode.DELTA && delta > 0
+                ? StockMovementType.RECEIPT
+                : StockMovementType.ADJUSTMENT;
+        stockLedgerService.record(row.getProductId(), type, delta, "bulk");
+        moved.merge(row.getProductId(), delta, Integer::sum);
     }
-}
 
+    private static String validate(StockAdjustmentDto row) {
+        if (row.getProductId() == null) {
+            return "productId is required";
+        }
+        if (row.getQuantity() == null) {
+            return "quantity is required";
+        }
+        if (mode(row) == StockAdjustmentMode.SET && row.getQuantity() < 0) {
+            return "Absolute quantity cannot be negative";
+        }
+        return null;
+    }
+
+    private static StockAdjustmentMode mode(StockAdjustmentDto row) {
+        return row.getMode() != null ? row.getMode() : StockAdjustmentMode.SET;
+    }
+
+    @Override
+    public InventoryResponseDto setReorderThreshold(Long productId, Integer threshold) {
+        if (threshold != null && threshold < 0) {
+            throw new BadRequestException("Reorder threshold cannot be negative");
+        }
+        if (inventoryRepository.updateReorderThreshold(productId, threshold) == 0) {
+            throw new RuntimeException("Inventory not found");
+        }
+
+        // A new threshold may already be crossed
+        lowStockAlertService.stockChanged(List.of(productId));
+        return getStock(productId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockLedgerDto getLedger(Long productId, int limit) {
+        return stockLedgerService.getLedger(productId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocationStockDto> getLocations(Long productId) {
+        return warehouseService.getLocations(productId);
+    }
+
+    @Override
+    public InventoryResponseDto setLocationQuantity(Long productId, Long warehouseId, int quantity) {
+        // Inventory row first, then location rows: the lock order of every other stock path
+        StockLevelView level = inventoryRepository.lockStockLevels(List.of(productId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Inventory not found"));
+
+        int delta = warehouseService.setQuantity(productId, warehouseId, quantity);
+        boolean hot = level.getShardCount() > 0;
+        if (delta > 0) {
+            if (hot) {
+                hotSkuStockService.put(productId, delta);
+            } else {
+                inventoryRepository.increment(productId, delta);
+            }
+        } else if (delta < 0) {
+            boolean taken = hot
+                    ? hotSkuStockService.take(productId, -delta)
+                    : inventoryRepository.decrementIfAvailable(productId, -delta) == 1;
+            if (!taken) {
+                throw new BadRequestException("Those units are already sold or held in carts");
+            }
+        }
+
+        if (delta != 0) {
+            stockLedgerService.record(productId, StockMovementType.ADJUSTMENT, delta, "warehouse:" + warehouseId);
+            outboxService.publish(AggregateType.PRODUCT, productId, OutboxEventType.STOCK_CHANGED,
+                    Map.of("productId", productId, "warehouseId", warehouseId, "delta", delta));
+            eventPublisher.publishEvent(new StockLevelsChangedEvent(List.of(productId)));
+        }
+        return getStock(productId);
+    }
+
+    @Override
+    public InventoryResponseDto enableHotSku(Long productId, int shards) {
+        return hotSkuStockService.enable(productId, shards);
+    }
+
+    @Override
+    public InventoryResponseDto disableHotSku(Long productId) {
+        return hotSkuStockService.disable(productId);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.event.StockLevelsChangedEvent;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.UserRepository;
+import com.ats.ecommerce.repository.projection.LowStockView;
+import com.ats.ecommerce.service.LowStockAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates reorder thresholds only for products whose stock just changed. Mutations
+ * queue product ids after commit; a job drains the queue, so a burst of orders on one
+ * product costs a single check. The low_stock_alerted flag is flipped with a conditional
+ * UPDATE per product, so each dip alerts once even with several nodes evaluating.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LowStockAlertServiceImpl implements LowStockAlertService {
+
+    private static final String CLAIM_ALERT =
+            "UPDATE inventory SET low_stock_alerted = TRUE " +
+            "WHERE product_id = ? AND low_stock_alerted = FALSE AND quantity < reorder_threshold";
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (user_id, type, message, is_read, created_at) VALUES (?, ?, ?, FALSE, ?)";
+
+    private static final String ALERT_TYPE = "LOW_STOCK";
+
+    private final InventoryRepository inventoryRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.inventory.low-stock.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void stockChanged(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.addAll(productIds);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> buffer = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            Set<Long> touched = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, touched);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.addAll(touched);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LowStockAlertServiceImpl.this);
+                }
+            });
+            buffer = touched;
+        }
+        buffer.addAll(productIds);
+    }
+
+    // Direct and bulk stock updates
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelsChanged(StockLevelsChangedEvent event) {
+        stockChanged(event.getProductIds());
+    }
+
+    @Override
+    public int evaluatePending(int batchSize) {
+        List<Long> productIds = drain(batchSize);
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> evaluate(productIds));
+            return productIds.size();
+        } catch (RuntimeException e) {
+            // Nothing was flagged; check these products again on the next run
+            pending.addAll(productIds);
+            throw e;
+        }
+    }
+
+    private void evaluate(List<Long> productIds) {
+        inventoryRepository.rearmLowStock(productIds);
+
+        List<LowStockView> candidates = inventoryRepository.findNewlyLow(productIds);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Only the rows this node flipped get an alert; another node may have won the rest
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM_ALERT, candidates, candidates.size(),
+                (ps, candidate) -> ps.setLong(1, candidate.getProductId()));
+        List<LowStockView> alerts = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (counts[0][i] == 1) {
+                alerts.add(candidates.get(i));
+            }
+        }
+
+        List<Long> adminIds = userRepository.findIdsByRoleName("ROLE_ADMIN");
+        if (alerts.isEmpty() || adminIds.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(alerts.size() * adminIds.size());
+        for (LowStockView alert : alerts) {
+            String message = alert.getProductName() + " is low on stock: " + alert.getQuantity()
+                    + " left (reorder at " + alert.getReorderThreshold() + ")";
+            for (Long adminId : adminIds) {
+                rows.add(new Object[]{adminId, ALERT_TYPE, message, now});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows);
+
+        log.info("Low-stock alerts raised for {} products ({} notifications)", alerts.size(), rows.size());
+    }
+
+    private List<Long> drain(int batchSize) {
+        List<Long> productIds = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Long> it = pending.iterator();
+        while (it.hasNext() && productIds.size() < batchSize) {
+            productIds.add(it.next());
+            it.remove();
+        }
+        return productIds;
+    }
+}
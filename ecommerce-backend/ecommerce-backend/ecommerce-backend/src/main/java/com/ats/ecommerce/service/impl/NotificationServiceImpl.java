@@ -0,0 +1,76 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.notification.NotificationDto;
+import com.ats.ecommerce.entity.Notification;
+import com.ats.ecommerce.entity.OrderSummary;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.event.OutboxEvent;
+import com.ats.ecommerce.mapper.NotificationMapper;
+import com.ats.ecommerce.repository.NotificationRepository;
+import com.ats.ecommerce.repository.OrderSummaryRepository;
+import com.ats.ecommerce.repository.UserRepository;
+import com.ats.ecommerce.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class NotificationServiceImpl implements NotificationService {
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final NotificationMapper notificationMapper;
+
+    @Override
+    public void notify(Long userId, String type, String message) {
+        Notification notification = new Notification();
+        notification.setUser(userRepository.getReferenceById(userId));
+        notification.setType(type);
+        notification.setMessage(message);
+        notification.setCreatedAt(LocalDateTime.now());
+        notificationRepository.save(notification);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationDto> getUserNotifications(Long userId) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId)
+                .stream()
+                .map(notificationMapper::toDto)
+                .toList();
+    }
+
+    // Outbox subscriber: tells the customer about their order's progress
+    @EventListener
+    public void onOutboxEvent(OutboxEvent event) {
+        if (event.getAggregateType() != AggregateType.ORDER) {
+            return;
+        }
+
+        Long orderId = event.getAggregateId();
+        String message = switch (event.getType()) {
+            case ORDER_PLACED -> "Order #" + orderId + " has been placed";
+            case PAYMENT_SUCCEEDED -> "Payment received for order #" + orderId;
+            case PAYMENT_FAILED -> "Payment for order #" + orderId + " failed";
+            case ORDER_CANCELLED -> "Order #" + orderId + " has been cancelled";
+            default -> null;
+        };
+        if (message == null) {
+            return;
+        }
+
+        Long userId = event.getPayload().hasNonNull("userId")
+                ? event.getPayload().get("userId").asLong()
+                : orderSummaryRepository.findById(orderId).map(OrderSummary::getUserId).orElse(null);
+        if (userId != null) {
+            notify(userId, event.getType().name(), message);
+        }
+    }
+}
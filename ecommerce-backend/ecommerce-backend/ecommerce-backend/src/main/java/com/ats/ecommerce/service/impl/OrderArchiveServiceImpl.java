@@ -0,0 +1,68 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.mapper.OrderMapper;
+import com.ats.ecommerce.repository.OrderArchiveRepository;
+import com.ats.ecommerce.service.OrderArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    // Orders that can no longer change
+    private static final List<String> CLOSED_STATUSES =
+            List.of(OrderStatus.SHIPPED.name(), OrderStatus.CANCELLED.name());
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderMapper orderMapper;
+
+    @Value("${app.orders.archive.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = orderArchiveRepository.claimArchivable(cutoff, CLOSED_STATUSES, batchSize);
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Children first on delete, so the foreign keys to orders hold throughout
+        orderArchiveRepository.copyOrders(ids);
+        orderArchiveRepository.copyOrderItems(ids);
+        orderArchiveRepository.copyPayments(ids);
+        orderArchiveRepository.copyShipments(ids);
+
+        orderArchiveRepository.deleteOrderItems(ids);
+        orderArchiveRepository.deletePayments(ids);
+        orderArchiveRepository.deleteShipments(ids);
+        orderArchiveRepository.deleteOrders(ids);
+
+        log.info("Archived {} orders created before {}", ids.size(), cutoff);
+        return ids.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderDto> findOrder(Long orderId) {
+        return orderArchiveRepository.findById(orderId)
+                .map(order -> orderMapper.toDto(order, orderArchiveRepository.findItemRows(orderId)));
+    }
+}
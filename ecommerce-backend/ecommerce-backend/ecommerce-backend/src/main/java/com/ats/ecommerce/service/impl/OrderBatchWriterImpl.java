@@ -0,0 +1,462 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.admin.OrderBatchStatsDto;
+import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderItemDto;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OrderEventType;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
+import com.ats.ecommerce.exception.ServiceUnavailableException;
+import com.ats.ecommerce.exception.TooManyRequestsException;
+import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.repository.projection.CartLineView;
+import com.ats.ecommerce.service.CartService;
+import com.ats.ecommerce.service.OrderBatchWriter;
+import com.ats.ecommerce.service.OrderEventService;
+import com.ats.ecommerce.service.OrderSummaryService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.StockHoldService;
+import com.ats.ecommerce.service.StockReservationService;
+import com.ats.ecommerce.service.WarehouseService;
+import com.ats.ecommerce.util.SavepointScope;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * One writer thread drains the queue for up to {@code window-ms} (or until a batch
+ * is full) and places the whole batch in one transaction, so the batch pays for a
+ * single commit. Each order's stock and cart work runs under its own JDBC savepoint:
+ * an order that is short on stock is rolled back alone and the rest still commit.
+ * Orders and their lines are then inserted with two JDBC batches.
+ *
+ * A savepoint cannot undo a participating transactional call that failed and
+ * marked the shared transaction rollback-only. When that happens the batch is
+ * rolled back and the orders that had not failed are written again in a new one.
+ *
+ * Only bulk statements and projections are used inside the batch, so rolling back
+ * to a savepoint never leaves managed entities out of step with the database. The
+ * ledger movements and hot-SKU counter updates an order queues for the transaction
+ * are held in a {@link SavepointScope} and only handed over once its savepoint is
+ * released, so a rolled back order leaves neither behind.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchWriterImpl implements OrderBatchWriter {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (user_id, status, total_amount, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER_ITEM =
+            "INSERT INTO order_items (order_id, product_id, sku, product_name, image_url, quantity, price) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final CartRepository cartRepository;
+    private final CartService cartService;
+    private final StockReservationService stockReservationService;
+    private final StockHoldService stockHoldService;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderEventService orderEventService;
+    private final OutboxService outboxService;
+    private final WarehouseService warehouseService;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Integer, BatchStats> statsByBatchSize = new ConcurrentHashMap<>();
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @Value("${app.orders.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.orders.group-commit.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${app.orders.group-commit.window-ms:5}")
+    private long windowMs;
+
+    @Value("${app.orders.group-commit.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Value("${app.orders.group-commit.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drain, "order-group-commit");
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public OrderDto place(Long userId, Long cartId) {
+        PendingOrder pending = new PendingOrder(userId, cartId, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new TooManyRequestsException("Order queue is full, please retry shortly");
+        }
+
+        try {
+            return pending.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // Still queued: withdraw it so it is never placed. Otherwise the writer already
+            // has it and it may yet commit, so the caller must not blindly retry.
+            if (queue.remove(pending)) {
+                throw new ServiceUnavailableException("Order could not be placed in time, please retry");
+            }
+            throw new ServiceUnavailableException("Order is still being processed, check your orders before retrying");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order commit", ex);
+        }
+    }
+
+    @Override
+    public List<OrderBatchStatsDto> getStats() {
+        return statsByBatchSize.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .toList();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                // Shutdown: write what was collected, then drain the rest without waiting
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    private void write(List<PendingOrder> batch) {
+        long started = System.nanoTime();
+        List<PlacedOrder> placed;
+        try {
+            placed = transactionTemplate.execute(status -> {
+                List<PlacedOrder> accepted = new ArrayList<>(batch.size());
+                for (PendingOrder pending : batch) {
+                    Optional<PlacedOrder> order = prepare(pending);
+                    if (order.isEmpty() && status.isRollbackOnly()) {
+                        throw new RollbackOnlyBatchException();
+                    }
+                    order.ifPresent(accepted::add);
+                }
+                insert(accepted);
+                return accepted;
+            });
+        } catch (RollbackOnlyBatchException ex) {
+            // The failed order already has its error; everything else was undone with it
+            List<PendingOrder> retry = batch.stream()
+                    .filter(pending -> !pending.result().isDone())
+                    .toList();
+            log.warn("Group commit of {} orders was marked rollback-only, retrying {}", batch.size(), retry.size());
+            if (!retry.isEmpty()) {
+                write(retry);
+            }
+            return;
+        } catch (RuntimeException ex) {
+            log.error("Group commit of {} orders failed", batch.size(), ex);
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+            return;
+        }
+
+        // Durable from here on
+        long committed = System.nanoTime();
+        BatchStats stats = statsByBatchSize.computeIfAbsent(batch.size(), size -> new BatchStats());
+        stats.record(placed, committed - started, committed);
+        placed.forEach(order -> order.pending().result().complete(order.toDto()));
+    }
+
+    // Takes the order's stock and empties its cart under a savepoint; on failure only
+    // this order is rolled back and its caller gets the error
+    private Optional<PlacedOrder> prepare(PendingOrder pending) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        Savepoint savepoint = savepoint(connection);
+        SavepointScope scope = SavepointScope.open();
+        try {
+            List<CartLineView> lines = cartRepository.findCartLines(pending.cartId());
+            if (lines.isEmpty()) {
+                throw new ResourceNotFoundException("Cart not found");
+            }
+            lines = lines.stream().filter(line -> line.getProductId() != null).toList();
+            if (lines.isEmpty()) {
+                throw new RuntimeException("Cart is empty");
+            }
+
+            // The cart's own holds already took units off the shelf; give them back first
+            // so they do not count against this order
+            stockHoldService.releaseCart(pending.cartId());
+
+            stockReservationService.tryReserve(lines.stream()
+                            .collect(Collectors.toMap(CartLineView::getProductId, CartLineView::getQuantity, Integer::sum)))
+                    .ifPresent(productId -> {
+                        throw new InsufficientStockException(productId);
+                    });
+
+            cartService.clearCart(pending.cartId());
+
+            connection.releaseSavepoint(savepoint);
+            scope.release();
+            return Optional.of(new PlacedOrder(pending, lines));
+        } catch (RuntimeException | SQLException ex) {
+            // Drops the ledger movements and counter updates this order queued
+            scope.close();
+            rollback(connection, savepoint);
+            entityManager.clear();
+            pending.result().completeExceptionally(
+                    ex instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex));
+            return Optional.empty();
+        }
+    }
+
+    private void insert(List<PlacedOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_ORDER, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PlacedOrder order = orders.get(i);
+                        ps.setLong(1, order.pending().userId());
+                        ps.setString(2, OrderStatus.PENDING.name());
+                        ps.setBigDecimal(3, order.total());
+                        ps.setTimestamp(4, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return orders.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            PlacedOrder order = orders.get(i);
+            order.setOrderId(((Number) generated.get(i).values().iterator().next()).longValue());
+            for (CartLineView line : order.lines()) {
+                items.add(new Object[]{order.getOrderId(), line.getProductId(), line.getSku(), line.getProductName(),
+                        line.getImageUrl(), line.getQuantity(), line.getCurrentPrice()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, items);
+
+        // One warehouse pass for the whole batch, first come first served
+        Map<Long, Map<Long, Integer>> linesByOrderId = new LinkedHashMap<>();
+        for (PlacedOrder order : orders) {
+            linesByOrderId.put(order.getOrderId(), order.lines().stream()
+                    .collect(Collectors.toMap(CartLineView::getProductId, CartLineView::getQuantity, Integer::sum)));
+        }
+        warehouseService.allocate(linesByOrderId);
+
+        for (PlacedOrder order : orders) {
+            orderSummaryService.orderPlaced(order.getOrderId(), order.pending().userId(), order.total(),
+                    now, order.toDto().getItems());
+            orderEventService.append(order.getOrderId(), OrderEventType.CREATED, order.total(), "GROUP_COMMIT");
+            outboxService.publish(AggregateType.ORDER, order.getOrderId(), OutboxEventType.ORDER_PLACED,
+                    Map.of("orderId", order.getOrderId(), "userId", order.pending().userId(), "amount", order.total()));
+        }
+    }
+
+    private static Savepoint savepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not create savepoint for group commit", ex);
+        }
+    }
+
+    private static void rollback(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not roll back to savepoint", ex);
+        }
+    }
+
+    private static final class RollbackOnlyBatchException extends RuntimeException {
+
+        RollbackOnlyBatchException() {
+            super("Group commit transaction was marked rollback-only", null, false, false);
+        }
+    }
+
+    private record PendingOrder(Long userId, Long cartId, long enqueuedAt, CompletableFuture<OrderDto> result) {
+    }
+
+    private static final class PlacedOrder {
+
+        private final PendingOrder pending;
+        private final List<CartLineView> lines;
+        private Long orderId;
+
+        PlacedOrder(PendingOrder pending, List<CartLineView> lines) {
+            this.pending = pending;
+            this.lines = lines;
+        }
+
+        PendingOrder pending() {
+            return pending;
+        }
+
+        List<CartLineView> lines() {
+            return lines;
+        }
+
+        Long getOrderId() {
+            return orderId;
+        }
+
+        void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        BigDecimal total() {
+            return lines.stream()
+                    .map(line -> line.getCurrentPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        OrderDto toDto() {
+            return new OrderDto(
+                    orderId,
+                    OrderStatus.PENDING.name(),
+                    total(),
+                    lines.stream()
+                            .sorted(Comparator.comparing(CartLineView::getProductId))
+                            .map(line -> new OrderItemDto(line.getProductId(), line.getSku(), line.getProductName(),
+                                    line.getImageUrl(), line.getQuantity(), line.getCurrentPrice()))
+                            .toList()
+            );
+        }
+    }
+
+    private static final class BatchStats {
+
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder commitNanos = new LongAdder();
+
+        void record(List<PlacedOrder> placed, long batchNanos, long committedAt) {
+            batches.increment();
+            commitNanos.add(batchNanos);
+            for (PlacedOrder order : placed) {
+                long latency = committedAt - order.pending().enqueuedAt();
+                orders.increment();
+                latencyNanos.add(latency);
+                maxLatencyNanos.accumulate(latency);
+            }
+        }
+
+        OrderBatchStatsDto toDto(int batchSize) {
+            long batchCount = batches.sum();
+            long orderCount = orders.sum();
+            long busyNanos = commitNanos.sum();
+            return new OrderBatchStatsDto(
+                    batchSize,
+                    batchCount,
+                    orderCount,
+                    orderCount > 0 ? latencyNanos.sum() / 1e6 / orderCount : 0.0,
+                    maxLatencyNanos.get() / 1e6,
+                    batchCount > 0 ? busyNanos / 1e6 / batchCount : 0.0,
+                    busyNanos > 0 ? orderCount * 1e9 / busyNanos : 0.0
+            );
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.admin.OrderReplayResultDto;
+import com.ats.ecommerce.dto.order.OrderEventDto;
+import com.ats.ecommerce.entity.OrderEvent;
+import com.ats.ecommerce.entity.enums.OrderEventType;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.repository.OrderEventRepository;
+import com.ats.ecommerce.service.OrderEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventServiceImpl implements OrderEventService {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO order_events (order_id, type, amount, detail, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SUMMARY_STATUS =
+            "UPDATE order_summaries SET status = ? WHERE order_id = ? AND status <> ?";
+
+    private final OrderEventRepository orderEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.orders.events.replay-chunk-size:5000}")
+    private int replayChunkSize;
+
+    @Override
+    public void append(Long orderId, OrderEventType type, BigDecimal amount, String detail) {
+        OrderEvent event = new OrderEvent(null, orderId, type, amount, detail, LocalDateTime.now());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(event));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<OrderEvent> buffer = (List<OrderEvent>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<OrderEvent> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderEventServiceImpl.this);
+                }
+            });
+            buffer = pending;
+        }
+        buffer.add(event);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderEventDto> getTimeline(Long orderId) {
+        return orderEventRepository.findByOrderIdOrderById(orderId)
+                .stream()
+                .map(e -> new OrderEventDto(e.getId(), e.getOrderId(), e.getType().name(),
+                        e.getAmount(), e.getDetail(), e.getOccurredAt()))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public OrderReplayResultDto replay() {
+        Map<Long, OrderStatus> statusByOrder = new HashMap<>();
+        Map<Long, BigDecimal> totalByOrder = new HashMap<>();
+
+        long events = 0;
+        long lastId = 0;
+        long created = 0, cancelled = 0, paid = 0, failed = 0;
+        BigDecimal grossSales = BigDecimal.ZERO;
+        BigDecimal paidSales = BigDecimal.ZERO;
+        BigDecimal cancelledSales = BigDecimal.ZERO;
+
+        List<OrderEvent> chunk;
+        do {
+            chunk = orderEventRepository.findChunkAfter(lastId, PageRequest.of(0, replayChunkSize));
+            for (OrderEvent event : chunk) {
+                BigDecimal amount = event.getAmount() != null ? event.getAmount() : BigDecimal.ZERO;
+                switch (event.getType()) {
+                    case CREATED -> {
+                        created++;
+                        grossSales = grossSales.add(amount);
+                        totalByOrder.put(event.getOrderId(), amount);
+                        statusByOrder.put(event.getOrderId(), OrderStatus.PENDING);
+                    }
+                    case PAYMENT_SUCCEEDED -> {
+                        paid++;
+                        paidSales = paidSales.add(amount);
+                    }
+                    case PAYMENT_FAILED -> failed++;
+                    case CONFIRMED -> statusByOrder.put(event.getOrderId(), OrderStatus.CONFIRMED);
+                    case SHIPPED -> statusByOrder.put(event.getOrderId(), OrderStatus.SHIPPED);
+                    case CANCELLED -> {
+                        cancelled++;
+                        cancelledSales = cancelledSales.add(totalByOrder.getOrDefault(event.getOrderId(), BigDecimal.ZERO));
+                        statusByOrder.put(event.getOrderId(), OrderStatus.CANCELLED);
+                    }
+                    case SHIPMENT_CREATED, SHIPMENT_SHIPPED, SHIPMENT_DELIVERED -> {
+                        // shipment progress does not change the order status
+                    }
+                }
+                lastId = event.getId();
+            }
+            events += chunk.size();
+        } while (chunk.size() == replayChunkSize);
+
+        List<Object[]> updates = statusByOrder.entrySet().stream()
+                .map(e -> new Object[]{e.getValue().name(), e.getKey(), e.getValue().name()})
+                .toList();
+        int rebuilt = 0;
+        for (int[] counts : jdbcTemplate.batchUpdate(UPDATE_SUMMARY_STATUS, updates, replayChunkSize,
+                (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                    ps.setString(3, (String) row[2]);
+                })) {
+            for (int count : counts) {
+                rebuilt += Math.max(count, 0);
+            }
+        }
+
+        log.info("Replayed {} order events up to id {}; {} summary statuses corrected", events, lastId, rebuilt);
+
+        return new OrderReplayResultDto(events, lastId, created, cancelled, paid, failed,
+                grossSales, paidSales, cancelledSales, rebuilt);
+    }
+
+    private void insert(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getOrderId());
+            ps.setString(2, event.getType().name());
+            ps.setBigDecimal(3, event.getAmount());
+            ps.setString(4, event.getDetail());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+}
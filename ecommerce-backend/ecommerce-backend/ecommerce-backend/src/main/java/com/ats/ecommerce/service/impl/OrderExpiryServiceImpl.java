@@ -0,0 +1,91 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OrderEventType;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.OrderRepository;
+import com.ats.ecommerce.repository.projection.OrderItemRowView;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.LowStockAlertService;
+import com.ats.ecommerce.service.OrderEventService;
+import com.ats.ecommerce.service.OrderExpiryService;
+import com.ats.ecommerce.service.OrderSummaryService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.StockStreamService;
+import com.ats.ecommerce.service.WarehouseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OrderExpiryServiceImpl implements OrderExpiryService {
+
+    private final OrderRepository orderRepository;
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuStockService hotSkuStockService;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderEventService orderEventService;
+    private final OutboxService outboxService;
+    private final LowStockAlertService lowStockAlertService;
+    private final StockLedgerService stockLedgerService;
+    private final WarehouseService warehouseService;
+    private final StockStreamService stockStreamService;
+
+    @Value("${app.orders.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int expireBatch(LocalDateTime cutoff, int batchSize) {
+        // The claimed rows stay locked until commit, so a late payment waits and then loses its CAS
+        List<Long> ids = orderRepository.claimExpiredPending(cutoff, batchSize);
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        orderRepository.cancelPending(ids);
+
+        inventoryRepository.restockOrders(ids);
+        warehouseService.release(ids);
+        for (OrderItemRowView line : orderRepository.findShardedItemRows(ids)) {
+            hotSkuStockService.put(line.getProductId(), line.getQuantity());
+        }
+
+        List<OrderItemRowView> lines = orderRepository.findItemRows(ids);
+        for (OrderItemRowView line : lines) {
+            stockLedgerService.record(line.getProductId(), StockMovementType.RETURN, line.getQuantity(),
+                    "order:" + line.getOrderId());
+        }
+        List<Long> productIds = lines.stream().map(OrderItemRowView::getProductId).distinct().toList();
+        lowStockAlertService.stockChanged(productIds);
+        stockStreamService.stockChanged(productIds);
+
+        orderSummaryService.statusChanged(ids, OrderStatus.CANCELLED);
+        for (Long id : ids) {
+            orderEventService.append(id, OrderEventType.CANCELLED, null, "EXPIRED");
+            outboxService.publish(AggregateType.ORDER, id, OutboxEventType.ORDER_CANCELLED,
+                    Map.of("orderId", id, "reason", "EXPIRED"));
+        }
+
+        log.info("Cancelled {} unpaid orders created before {}", ids.size(), cutoff);
+        return ids.size();
+    }
+}
@@ -1,61 +1,81 @@
 package com.ats.ecommerce.service.impl;
 
 import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.dto.order.OrderHistoryDto;
+import com.ats.ecommerce.dto.order.OrderPageDto;
+import com.ats.ecommerce.dto.order.OrderSearchRequest;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
 import com.ats.ecommerce.entity.*;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OrderEventType;
 import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.ats.ecommerce.exception.BadRequestException;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.mapper.OrderMapper;
 import com.ats.ecommerce.repository.OrderRepository;
 import com.ats.ecommerce.repository.ProductRepository;
+import com.ats.ecommerce.repository.projection.OrderItemRowView;
+import com.ats.ecommerce.repository.projection.OrderRowView;
+import com.ats.ecommerce.service.OrderArchiveService;
+import com.ats.ecommerce.service.OrderEventService;
 import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.OrderSummaryService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.StockReservationService;
+import com.ats.ecommerce.service.WarehouseService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final OrderMapper orderMapper;
+    private final StockReservationService stockReservationService;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderEventService orderEventService;
+    private final OutboxService outboxService;
+    private final WarehouseService warehouseService;
 
     @Override
     public Order placeOrder(User user, Cart cart) {
 
+        // Take the stock first; a shortfall rolls the whole placement back
+        Map<Long, Integer> lines = cart.getItems().stream()
+                .collect(Collectors.toMap(ci -> ci.getProduct().getId(), CartItem::getQuantity, Integer::sum));
+        stockReservationService.reserve(lines);
+
         Order order = new Order();
         order.setUser(user);
 
         List<OrderItem> items = cart.getItems().stream().map(ci -> {
             Product product = ci.getProduct();
 
-            // TODO: Implement inventory management
-            // Once inventory system is fully implemented, uncomment the following:
-            /*
-            // Check if inventory exists
-            if (product.getInventory() == null) {
-                throw new RuntimeException("Product " + product.getName() + " has no inventory record. Please contact support.");
-            }
-
-            // Check stock availability
-            if (product.getInventory().getQuantity() < ci.getQuantity()) {
-                throw new ResourceNotFoundException("Insufficient stock for " + product.getName());
-            }
-
-            // Reduce inventory quantity
-            product.getInventory().setQuantity(
-                    product.getInventory().getQuantity() - ci.getQuantity()
-            );
-            */
-
             return new OrderItem(
                     null,
                     order,
                     product,
+                    product.getSku(),
+                    product.getName(),
+                    product.getImageUrl(),
                     ci.getQuantity(),
                     product.getPrice()
             );
@@ -70,28 +90,110 @@ public class OrderServiceImpl implements OrderService {
                         .reduce(BigDecimal.ZERO, BigDecimal::add)
         );
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        warehouseService.allocate(Map.of(saved.getId(), lines));
+
+        orderSummaryService.orderPlaced(saved.getId(), user.getId(), saved.getTotalAmount(),
+                saved.getCreatedAt(), orderMapper.toDto(saved).getItems());
+        orderEventService.append(saved.getId(), OrderEventType.CREATED, saved.getTotalAmount(), null);
+        outboxService.publish(AggregateType.ORDER, saved.getId(), OutboxEventType.ORDER_PLACED,
+                Map.of("orderId", saved.getId(), "userId", user.getId(), "amount", saved.getTotalAmount()));
+
+        return saved;
     }
 
     @Override
     public OrderDto getOrder(Long orderId) {
+        // Closed orders past the retention window live in the archive tables
         return orderRepository.findById(orderId)
                 .map(orderMapper::toDto)
+                .or(() -> orderArchiveService.findOrder(orderId))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
     }
 
     @Override
-    public List<OrderDto> getUserOrders(Long userId) {
-        return orderRepository.findByUserId(userId)
-                .stream()
-                .map(orderMapper::toDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDto> getUserOrders(Long userId) {
+        return orderSummaryService.getUserOrders(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageDto searchOrders(OrderSearchRequest request) {
+        int size = request.getSize() == null
+                ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(request.getSize(), MAX_PAGE_SIZE));
+
+        LocalDateTime cursorAt = null;
+        Long cursorId = null;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            try {
+                String[] cursor = new String(Base64.getUrlDecoder().decode(request.getCursor()),
+                        StandardCharsets.UTF_8).split("\\|");
+                cursorAt = LocalDateTime.parse(cursor[0]);
+                cursorId = Long.valueOf(cursor[1]);
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // One extra row tells whether another page follows
+        List<OrderRowView> rows = orderRepository.findOrderPage(
+                request.getUserId(), request.getStatus(), request.getFrom(), request.getTo(),
+                cursorAt, cursorId, PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<OrderRowView> page = hasMore ? rows.subList(0, size) : rows;
+
+        List<OrderHistoryDto> orders = page.isEmpty()
+                ? List.of()
+                : orderMapper.toHistoryDtos(page, orderRepository.findItemRows(
+                        page.stream().map(OrderRowView::getOrderId).toList()));
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderRowView last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getOrderId());
+        }
+
+        return new OrderPageDto(orders, nextCursor, hasMore);
     }
 
     @Override
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        order.setStatus(OrderStatus.CANCELLED);
+        if (!transitionStatus(orderId, OrderStatus.CANCELLED)) {
+            OrderStatus current = orderRepository.findStatusById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+            if (current == OrderStatus.CANCELLED) {
+                return;
+            }
+            throw new BadRequestException("Order in status " + current + " cannot be cancelled");
+        }
+
+        // Only the caller that won the transition returns the order's stock
+        stockReservationService.release(orderRepository.findItemRows(List.of(orderId)).stream()
+                .collect(Collectors.toMap(OrderItemRowView::getProductId, OrderItemRowView::getQuantity, Integer::sum)));
+        warehouseService.release(List.of(orderId));
+    }
+
+    @Override
+    public boolean transitionStatus(Long orderId, OrderStatus target) {
+        if (orderRepository.transitionStatus(orderId, target.allowedFrom(), target) == 0) {
+            return false;
+        }
+        orderSummaryService.statusChanged(orderId, target);
+        orderEventService.append(orderId, OrderEventType.of(target), null, null);
+        if (target == OrderStatus.CANCELLED) {
+            outboxService.publish(AggregateType.ORDER, orderId, OutboxEventType.ORDER_CANCELLED,
+                    Map.of("orderId", orderId));
+        }
+        return true;
     }
-}
\ No newline at end of file
+
+    // Opaque to clients: base64url of "createdAt|id" of the last row on the page
+    private static String encodeCursor(LocalDateTime createdAt, Long orderId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+}
+
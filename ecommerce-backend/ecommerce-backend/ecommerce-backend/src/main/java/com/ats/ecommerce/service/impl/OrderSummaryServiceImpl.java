@@ -0,0 +1,87 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.order.OrderItemDto;
+import com.ats.ecommerce.dto.order.OrderSummaryDto;
+import com.ats.ecommerce.entity.OrderSummary;
+import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.PaymentStatus;
+import com.ats.ecommerce.entity.enums.ShipmentStatus;
+import com.ats.ecommerce.mapper.OrderMapper;
+import com.ats.ecommerce.repository.OrderSummaryRepository;
+import com.ats.ecommerce.service.OrderSummaryService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderMapper orderMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    public void orderPlaced(Long orderId, Long userId, BigDecimal totalAmount,
+                            LocalDateTime createdAt, List<OrderItemDto> items) {
+        OrderSummary summary = new OrderSummary(
+                orderId,
+                userId,
+                OrderStatus.PENDING,
+                totalAmount,
+                items.stream().mapToInt(OrderItemDto::getQuantity).sum(),
+                null,
+                null,
+                orderMapper.writeItems(items),
+                createdAt,
+                createdAt
+        );
+        // persist rather than save: the id is the order's, so save would merge and SELECT first
+        entityManager.persist(summary);
+    }
+
+    @Override
+    public void statusChanged(Long orderId, OrderStatus status) {
+        orderSummaryRepository.updateStatus(orderId, status);
+    }
+
+    @Override
+    public void statusChanged(Collection<Long> orderIds, OrderStatus status) {
+        orderSummaryRepository.updateStatusIn(orderIds, status);
+    }
+
+    @Override
+    public void paymentChanged(Long orderId, PaymentStatus status) {
+        orderSummaryRepository.updatePaymentStatus(orderId, status);
+    }
+
+    @Override
+    public void shipmentChanged(Long orderId, ShipmentStatus status) {
+        orderSummaryRepository.updateShipmentStatus(orderId, status);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDto> getUserOrders(Long userId) {
+        return orderSummaryRepository.findByUserIdOrderByCreatedAtDesc(userId)
+                .stream()
+                .map(orderMapper::toSummaryDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummaryDto> getAllOrders() {
+        return orderSummaryRepository.findAllByOrderByCreatedAtDesc()
+                .stream()
+                .map(orderMapper::toSummaryDto)
+                .toList();
+    }
+}
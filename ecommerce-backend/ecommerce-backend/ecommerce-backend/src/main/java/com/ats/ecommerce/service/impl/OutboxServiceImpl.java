@@ -0,0 +1,160 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.admin.OutboxStatsDto;
+import com.ats.ecommerce.entity.OutboxMessage;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
+import com.ats.ecommerce.event.OutboxEvent;
+import com.ats.ecommerce.repository.OutboxMessageRepository;
+import com.ats.ecommerce.service.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final AtomicLong lastLagMs = new AtomicLong();
+    private final LongAccumulator maxLagMs = new LongAccumulator(Math::max, 0);
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(AggregateType aggregateType, Long aggregateId, OutboxEventType type, Map<String, Object> payload) {
+        OutboxMessage message = new OutboxMessage();
+        message.setAggregateType(aggregateType);
+        message.setAggregateId(aggregateId);
+        message.setEventType(type);
+        message.setPayload(write(payload));
+        message.setCreatedAt(LocalDateTime.now());
+        outboxMessageRepository.save(message);
+    }
+
+    @Override
+    public int relayBatch() {
+        List<OutboxMessage> batch = outboxMessageRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+
+        Set<String> blocked = new HashSet<>();
+        int count = 0;
+        for (OutboxMessage message : batch) {
+            String aggregate = message.getAggregateType() + ":" + message.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> deliver(message.getId())))) {
+                    count++;
+                    recordLag(message.getCreatedAt());
+                }
+            } catch (RuntimeException ex) {
+                blocked.add(aggregate);
+                failedAttempts.increment();
+                log.warn("Outbox message {} ({}) failed: {}", message.getId(), message.getEventType(), ex.getMessage());
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxMessageRepository.recordFailure(message.getId(), truncate(ex.getMessage())));
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public int purgePublished(LocalDateTime cutoff, int batchSize) {
+        return outboxMessageRepository.deletePublishedBefore(cutoff, batchSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OutboxStatsDto getStats() {
+        LocalDateTime oldest = outboxMessageRepository.findOldestPendingCreatedAt(maxAttempts);
+        return new OutboxStatsDto(
+                outboxMessageRepository.countPending(maxAttempts),
+                outboxMessageRepository.countParked(maxAttempts),
+                oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0L,
+                delivered.sum(),
+                failedAttempts.sum(),
+                lastLagMs.get(),
+                maxLagMs.get()
+        );
+    }
+
+    // Runs in its own transaction; the row lock keeps another node from delivering it twice at once
+    private boolean deliver(Long messageId) {
+        OutboxMessage message = outboxMessageRepository.lockPending(messageId).orElse(null);
+        if (message == null) {
+            return false;
+        }
+
+        try {
+            eventPublisher.publishEvent(new OutboxEvent(
+                    message.getId(),
+                    message.getAggregateType(),
+                    message.getAggregateId(),
+                    message.getEventType(),
+                    objectMapper.readTree(message.getPayload()),
+                    message.getCreatedAt()
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload", e);
+        }
+
+        message.setPublishedAt(LocalDateTime.now());
+        return true;
+    }
+
+    private void recordLag(LocalDateTime createdAt) {
+        long lag = Duration.between(createdAt, LocalDateTime.now()).toMillis();
+        delivered.increment();
+        lastLagMs.set(lag);
+        maxLagMs.accumulate(lag);
+    }
+
+    private String write(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -2,21 +2,30 @@ package com.ats.ecommerce.service.impl;
 
 import com.ats.ecommerce.dto.payment.PaymentRequestDto;
 import com.ats.ecommerce.dto.payment.PaymentResponseDto;
-import com.ats.ecommerce.entity.Order;
 import com.ats.ecommerce.entity.Payment;
+import com.ats.ecommerce.entity.enums.AggregateType;
+import com.ats.ecommerce.entity.enums.OrderEventType;
 import com.ats.ecommerce.entity.enums.OrderStatus;
+import com.ats.ecommerce.entity.enums.OutboxEventType;
 import com.ats.ecommerce.entity.enums.PaymentStatus;
 import com.ats.ecommerce.exception.DuplicateResourceException;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.payment.provider.PaymentProvider;
 import com.ats.ecommerce.repository.OrderRepository;
 import com.ats.ecommerce.repository.PaymentRepository;
+import com.ats.ecommerce.service.OrderEventService;
+import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.OrderSummaryService;
+import com.ats.ecommerce.service.OutboxService;
 import com.ats.ecommerce.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -24,6 +33,10 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderEventService orderEventService;
+    private final OutboxService outboxService;
+    private final OrderService orderService;
 
     // Inject BOTH providers
     private final PaymentProvider mockPaymentProvider;
@@ -34,19 +47,20 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     public PaymentResponseDto pay(PaymentRequestDto request) {
 
-        // 1️⃣ Fetch order
-        Order order = orderRepository.findById(request.getOrderId())
+        // 1️⃣ Fetch order total (no entity load)
+        Long orderId = request.getOrderId();
+        BigDecimal totalAmount = orderRepository.findTotalAmountById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
         // 2️⃣ Prevent duplicate payment
-        if (paymentRepository.existsByOrderIdAndStatus(order.getId(), PaymentStatus.SUCCESS)) {
+        if (paymentRepository.existsByOrderIdAndStatus(orderId, PaymentStatus.SUCCESS)) {
             throw new DuplicateResourceException("Order already paid");
         }
 
         // 3️⃣ Create payment entity
         Payment payment = new Payment();
-        payment.setOrder(order);
-        payment.setAmount(order.getTotalAmount());
+        payment.setOrder(orderRepository.getReferenceById(orderId));
+        payment.setAmount(totalAmount);
         payment.setStatus(PaymentStatus.INITIATED);
 
         try {
@@ -55,19 +69,16 @@ public class PaymentServiceImpl implements PaymentService {
             // 4️⃣ Decide payment provider
             if ("CARD".equalsIgnoreCase(request.getMethod())) {
                 payment.setProvider("STRIPE");
-                reference = stripePaymentProvider.charge(order.getTotalAmount());
+                reference = stripePaymentProvider.charge(totalAmount);
             } else {
                 payment.setProvider("MOCK");
-                reference = mockPaymentProvider.charge(order.getTotalAmount());
+                reference = mockPaymentProvider.charge(totalAmount);
             }
 
             // 5️⃣ Payment success
             payment.setReference(reference);
             payment.setStatus(PaymentStatus.SUCCESS);
 
-            // 6️⃣ Update order status
-            order.setStatus(OrderStatus.CONFIRMED);
-
         } catch (Exception ex) {
             // 7️⃣ Payment failed
             payment.setStatus(PaymentStatus.FAILED);
@@ -75,6 +86,22 @@ public class PaymentServiceImpl implements PaymentService {
 
         Payment savedPayment = paymentRepository.save(payment);
 
+        // 6️⃣ Confirm the order; a no-op if a concurrent confirmation won
+        if (savedPayment.getStatus() == PaymentStatus.SUCCESS) {
+            orderService.transitionStatus(orderId, OrderStatus.CONFIRMED);
+        }
+        orderSummaryService.paymentChanged(orderId, savedPayment.getStatus());
+        orderEventService.append(orderId,
+                savedPayment.getStatus() == PaymentStatus.SUCCESS
+                        ? OrderEventType.PAYMENT_SUCCEEDED
+                        : OrderEventType.PAYMENT_FAILED,
+                totalAmount, savedPayment.getProvider());
+        outboxService.publish(AggregateType.ORDER, orderId,
+                savedPayment.getStatus() == PaymentStatus.SUCCESS
+                        ? OutboxEventType.PAYMENT_SUCCEEDED
+                        : OutboxEventType.PAYMENT_FAILED,
+                Map.of("orderId", orderId, "amount", totalAmount, "provider", savedPayment.getProvider()));
+
         return new PaymentResponseDto(
                 savedPayment.getId(),
                 savedPayment.getStatus().name(),
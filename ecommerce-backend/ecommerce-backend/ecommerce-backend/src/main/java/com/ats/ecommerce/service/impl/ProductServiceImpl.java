@@ -4,18 +4,26 @@ import com.ats.ecommerce.dto.product.ProductRequestDto;
 import com.ats.ecommerce.dto.product.ProductResponseDto;
 import com.ats.ecommerce.entity.Category;
 import com.ats.ecommerce.entity.Product;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.event.ProductPriceChangedEvent;
 import com.ats.ecommerce.exception.DuplicateResourceException;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.mapper.ProductMapper;
 import com.ats.ecommerce.repository.CategoryRepository;
 import com.ats.ecommerce.repository.ProductRepository;
+import com.ats.ecommerce.service.InventoryService;
 import com.ats.ecommerce.service.ProductService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.WarehouseService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +34,11 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedgerService stockLedgerService;
+    private final WarehouseService warehouseService;
+    private final InventoryService inventoryService;
+    private final EntityManager entityManager;
 
     @Override
     public ProductResponseDto createProduct(ProductRequestDto requestDto) {
@@ -48,6 +61,9 @@ public class ProductServiceImpl implements ProductService {
 
         // 4. Save product (Inventory is saved via cascade)
         Product savedProduct = productRepository.save(product);
+        stockLedgerService.record(savedProduct.getId(), StockMovementType.RECEIPT,
+                savedProduct.getInventory().getQuantity(), "opening");
+        warehouseService.absorb(Map.of(savedProduct.getId(), savedProduct.getInventory().getQuantity()));
 
         // 5. Map Entity → Response DTO
         return productMapper.toDto(savedProduct);
@@ -96,21 +112,31 @@ public class ProductServiceImpl implements ProductService {
                 ));
 
         // 4. Update product fields
+        BigDecimal oldPrice = product.getPrice();
         product.setSku(requestDto.getSku());
         product.setName(requestDto.getName());
         product.setDescription(requestDto.getDescription());
         product.setPrice(requestDto.getPrice());
         product.setCategory(category);
 
-        // 5. Update inventory
+        // 5. Update inventory through the locked stock path; the loaded entity is never
+        // written, only re-read, so holds and flags changed meanwhile are not overwritten
         if (product.getInventory() != null) {
-            product.getInventory().setQuantity(requestDto.getQuantity());
+            inventoryService.updateStock(id, requestDto.getQuantity());
+            entityManager.refresh(product.getInventory());
         }
 
         // 6. Save product
         Product updatedProduct = productRepository.save(product);
 
-        // 7. Return mapped response DTO
+        // 7. Reprice open carts once this update commits
+        if (oldPrice.compareTo(requestDto.getPrice()) != 0) {
+            eventPublisher.publishEvent(
+                    new ProductPriceChangedEvent(id, oldPrice, requestDto.getPrice())
+            );
+        }
+
+        // 8. Return mapped response DTO
         return productMapper.toDto(updatedProduct);
     }
 
@@ -4,14 +4,18 @@ import com.ats.ecommerce.dto.shipping.ShippingRequestDto;
 import com.ats.ecommerce.dto.shipping.ShippingResponseDto;
 import com.ats.ecommerce.entity.Order;
 import com.ats.ecommerce.entity.Shipment;
+import com.ats.ecommerce.entity.enums.OrderEventType;
 import com.ats.ecommerce.entity.enums.ShipmentStatus;
 import com.ats.ecommerce.exception.ResourceNotFoundException;
 import com.ats.ecommerce.mapper.ShippingMapper;
 import com.ats.ecommerce.repository.OrderRepository;
 import com.ats.ecommerce.repository.ShipmentRepository;
+import com.ats.ecommerce.service.OrderEventService;
+import com.ats.ecommerce.service.OrderSummaryService;
 import com.ats.ecommerce.service.ShipmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -20,8 +24,11 @@ public class ShipmentServiceImpl implements ShipmentService {
     private final ShipmentRepository shipmentRepository;
     private final OrderRepository orderRepository;
     private final ShippingMapper shippingMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderEventService orderEventService;
 
     @Override
+    @Transactional
     public ShippingResponseDto createShipment(ShippingRequestDto request) {
 
         Order order = orderRepository.findById(request.getOrderId())
@@ -33,6 +40,8 @@ public class ShipmentServiceImpl implements ShipmentService {
         shipment.setStatus(ShipmentStatus.CREATED);
 
         Shipment savedShipment = shipmentRepository.save(shipment);
+        orderSummaryService.shipmentChanged(order.getId(), ShipmentStatus.CREATED);
+        orderEventService.append(order.getId(), OrderEventType.SHIPMENT_CREATED, null, request.getAddress());
 
         return shippingMapper.toDto(savedShipment);
     }
@@ -57,6 +66,7 @@ public class ShipmentServiceImpl implements ShipmentService {
 
 
     @Override
+    @Transactional
     public ShippingResponseDto updateShipmentStatus(Long shipmentId, String status) {
 
         Shipment shipment = shipmentRepository.findById(shipmentId)
@@ -73,6 +83,8 @@ public class ShipmentServiceImpl implements ShipmentService {
         }
 
         shipment.setStatus(newStatus);
+        orderSummaryService.shipmentChanged(shipment.getOrder().getId(), newStatus);
+        orderEventService.append(shipment.getOrder().getId(), OrderEventType.of(newStatus), null, null);
 
         return shippingMapper.toDto(shipmentRepository.save(shipment));
     }
@@ -0,0 +1,143 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.StockHold;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.StockHoldRepository;
+import com.ats.ecommerce.service.StockHoldService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.StockStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockHoldServiceImpl implements StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final InventoryRepository inventoryRepository;
+    private final StockLedgerService stockLedgerService;
+    private final StockStreamService stockStreamService;
+
+    @Value("${app.inventory.soft-holds.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.soft-holds.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void hold(Long cartId, Long productId, int quantity) {
+        if (!enabled) {
+            return;
+        }
+
+        StockHold hold = stockHoldRepository.findByCartIdAndProductId(cartId, productId)
+                .orElseGet(() -> new StockHold(null, cartId, productId, 0, null));
+
+        int delta = quantity - hold.getQuantity();
+        if (delta > 0 && inventoryRepository.reserveIfAvailable(productId, delta) == 0) {
+            // Hot SKUs are not held; their stock is only taken at checkout
+            if (inventoryRepository.findShardCount(productId).orElse(0) > 0) {
+                return;
+            }
+            throw new InsufficientStockException(productId);
+        }
+        if (delta < 0) {
+            inventoryRepository.releaseReserved(productId, -delta);
+        }
+        stockLedgerService.record(productId,
+                delta > 0 ? StockMovementType.RESERVATION : StockMovementType.RESERVATION_RELEASE, delta, cartRef(cartId));
+        stockStreamService.stockChanged(List.of(productId));
+
+        hold.setQuantity(quantity);
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+        stockHoldRepository.save(hold);
+    }
+
+    @Override
+    public void release(Long cartId, Long productId) {
+        if (!enabled) {
+            return;
+        }
+
+        stockHoldRepository.findByCartIdAndProductId(cartId, productId).ifPresent(hold -> {
+            inventoryRepository.releaseReserved(productId, hold.getQuantity());
+            stockLedgerService.record(productId, StockMovementType.RESERVATION_RELEASE, -hold.getQuantity(),
+                    cartRef(cartId));
+            stockStreamService.stockChanged(List.of(productId));
+            stockHoldRepository.delete(hold);
+        });
+    }
+
+    @Override
+    public void releaseCart(Long cartId) {
+        if (!enabled) {
+            return;
+        }
+
+        List<StockHold> holds = stockHoldRepository.findByCartId(cartId);
+        List<Long> holdIds = holds.stream()
+                .map(StockHold::getId)
+                .toList();
+
+        if (!holdIds.isEmpty()) {
+            inventoryRepository.releaseHolds(holdIds);
+            recordReleased(holds);
+            stockHoldRepository.deleteByIdIn(holdIds);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> heldByCart(Long cartId) {
+        if (!enabled) {
+            return Map.of();
+        }
+        return stockHoldRepository.findByCartId(cartId).stream()
+                .collect(Collectors.toMap(StockHold::getProductId, StockHold::getQuantity, Integer::sum));
+    }
+
+    @Override
+    public int releaseExpired(int batchSize) {
+        List<Long> holdIds = stockHoldRepository.claimExpired(LocalDateTime.now(), batchSize);
+
+        if (holdIds.isEmpty()) {
+            return 0;
+        }
+
+        inventoryRepository.releaseHolds(holdIds);
+        recordReleased(stockHoldRepository.findAllById(holdIds));
+        stockHoldRepository.deleteByIdIn(holdIds);
+
+        log.info("Released {} expired stock holds", holdIds.size());
+        return holdIds.size();
+    }
+
+    private void recordReleased(List<StockHold> holds) {
+        for (StockHold hold : holds) {
+            stockLedgerService.record(hold.getProductId(), StockMovementType.RESERVATION_RELEASE,
+                    -hold.getQuantity(), cartRef(hold.getCartId()));
+        }
+        stockStreamService.stockChanged(holds.stream().map(StockHold::getProductId).distinct().toList());
+    }
+
+    private static String cartRef(Long cartId) {
+        return "cart:" + cartId;
+    }
+}
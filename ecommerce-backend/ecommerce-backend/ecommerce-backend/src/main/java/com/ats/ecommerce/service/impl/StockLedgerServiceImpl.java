@@ -0,0 +1,156 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.inventory.StockLedgerDto;
+import com.ats.ecommerce.dto.inventory.StockMovementDto;
+import com.ats.ecommerce.entity.StockMovement;
+import com.ats.ecommerce.entity.StockSnapshot;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.StockMovementRepository;
+import com.ats.ecommerce.repository.StockSnapshotRepository;
+import com.ats.ecommerce.repository.projection.StockLevelView;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.util.SavepointScope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO stock_movements (product_id, type, quantity, reference, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final Set<StockMovementType> ON_HAND = Arrays.stream(StockMovementType.values())
+            .filter(StockMovementType::isOnHand)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(StockMovementType.class)));
+
+    private static final Set<StockMovementType> HELD =
+            EnumSet.complementOf(EnumSet.copyOf(ON_HAND));
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuStockService hotSkuStockService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void record(Long productId, StockMovementType type, int quantity, String reference) {
+        if (quantity == 0) {
+            return;
+        }
+        StockMovement movement = new StockMovement(null, productId, type, quantity, reference, LocalDateTime.now());
+        // Under a savepoint the movement only counts once the savepoint is released
+        SavepointScope.defer(() -> buffer(movement));
+    }
+
+    private void buffer(StockMovement movement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(movement));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<StockMovement> buffer = (List<StockMovement>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<StockMovement> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StockLedgerServiceImpl.this);
+                }
+            });
+            buffer = pending;
+        }
+        buffer.add(movement);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockLedgerDto getLedger(Long productId, int limit) {
+        StockLevelView level = inventoryRepository.findStockLevel(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product: " + productId));
+
+        StockSnapshot snapshot = stockSnapshotRepository.findById(productId).orElse(null);
+        long afterId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        int snapshotQuantity = snapshot != null ? snapshot.getQuantity() : 0;
+        int snapshotReserved = snapshot != null ? snapshot.getReserved() : 0;
+
+        int ledgerQuantity = (int) (snapshotQuantity + stockMovementRepository.sumSince(productId, afterId, ON_HAND));
+        int ledgerReserved = (int) (snapshotReserved + stockMovementRepository.sumSince(productId, afterId, HELD));
+        int inventoryQuantity = level.getShardCount() > 0
+                ? hotSkuStockService.getQuantity(productId)
+                : level.getQuantity();
+
+        List<StockMovementDto> movements = stockMovementRepository
+                .findByProductIdOrderByIdDesc(productId, PageRequest.of(0, Math.max(1, Math.min(limit, 500))))
+                .stream()
+                .map(m -> new StockMovementDto(m.getId(), m.getType().name(), m.getQuantity(),
+                        m.getReference(), m.getOccurredAt()))
+                .toList();
+
+        return new StockLedgerDto(
+                productId,
+                snapshotQuantity,
+                snapshot != null ? snapshot.getTakenAt() : null,
+                ledgerQuantity,
+                ledgerReserved,
+                inventoryQuantity,
+                level.getReserved(),
+                inventoryQuantity - ledgerQuantity,
+                movements
+        );
+    }
+
+    @Override
+    @Transactional
+    public int compact(LocalDateTime cutoff, int batchSize) {
+        Long upTo = stockMovementRepository.findCompactionBound(cutoff, batchSize);
+        if (upTo == null) {
+            return 0;
+        }
+
+        stockMovementRepository.foldIntoSnapshots(upTo);
+        int compacted = stockMovementRepository.deleteUpTo(upTo);
+
+        log.info("Compacted {} stock movements up to id {}", compacted, upTo);
+        return compacted;
+    }
+
+    private void insert(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT, movements, movements.size(), (ps, m) -> {
+            ps.setLong(1, m.getProductId());
+            ps.setString(2, m.getType().name());
+            ps.setInt(3, m.getQuantity());
+            ps.setString(4, m.getReference());
+            ps.setTimestamp(5, Timestamp.valueOf(m.getOccurredAt()));
+        });
+    }
+}
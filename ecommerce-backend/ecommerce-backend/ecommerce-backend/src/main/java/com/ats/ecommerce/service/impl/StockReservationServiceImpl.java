@@ -0,0 +1,107 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.LowStockAlertService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.StockReservationService;
+import com.ats.ecommerce.service.StockStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Takes stock with one conditional UPDATE per product instead of load-check-save,
+ * so the availability check and the decrement cannot be raced. InnoDB keeps each
+ * row lock until the surrounding transaction commits, which is why lines are applied
+ * in ascending product id: two multi-line orders always lock rows in the same order
+ * and cannot deadlock each other. Hot SKUs are taken from their shard rows instead
+ * of the inventory row.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuStockService hotSkuStockService;
+    private final LowStockAlertService lowStockAlertService;
+    private final StockLedgerService stockLedgerService;
+    private final StockStreamService stockStreamService;
+
+    @Override
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        tryReserve(quantitiesByProductId).ifPresent(productId -> {
+            throw new InsufficientStockException(productId);
+        });
+    }
+
+    @Override
+    public Optional<Long> tryReserve(Map<Long, Integer> quantitiesByProductId) {
+        TreeMap<Long, Integer> lines = sorted(quantitiesByProductId);
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            if (!take(line.getKey(), line.getValue())) {
+                return Optional.of(line.getKey());
+            }
+            stockLedgerService.record(line.getKey(), StockMovementType.SALE, -line.getValue(), null);
+        }
+        lowStockAlertService.stockChanged(lines.keySet());
+        stockStreamService.stockChanged(lines.keySet());
+        return Optional.empty();
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        TreeMap<Long, Integer> lines = sorted(quantitiesByProductId);
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            put(line.getKey(), line.getValue());
+            stockLedgerService.record(line.getKey(), StockMovementType.RETURN, line.getValue(), null);
+        }
+        lowStockAlertService.stockChanged(lines.keySet());
+        stockStreamService.stockChanged(lines.keySet());
+    }
+
+    private boolean take(Long productId, int quantity) {
+        if (hotSkuStockService.isHot(productId)) {
+            if (hotSkuStockService.take(productId, quantity)) {
+                return true;
+            }
+            if (hotSkuStockService.refresh(productId)) {
+                return false;
+            }
+            // Hot mode was switched off since this node last looked
+        }
+        if (inventoryRepository.decrementIfAvailable(productId, quantity) == 1) {
+            return true;
+        }
+        // 0 rows: out of stock, or hot mode was switched on by another node
+        return hotSkuStockService.refresh(productId) && hotSkuStockService.take(productId, quantity);
+    }
+
+    private void put(Long productId, int quantity) {
+        if (!hotSkuStockService.isHot(productId) && inventoryRepository.increment(productId, quantity) == 1) {
+            return;
+        }
+        if (hotSkuStockService.refresh(productId)) {
+            hotSkuStockService.put(productId, quantity);
+        } else {
+            inventoryRepository.increment(productId, quantity);
+        }
+    }
+
+    private static TreeMap<Long, Integer> sorted(Map<Long, Integer> quantitiesByProductId) {
+        TreeMap<Long, Integer> lines = new TreeMap<>();
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (quantity != null && quantity > 0) {
+                lines.merge(productId, quantity, Integer::sum);
+            }
+        });
+        return lines;
+    }
+}
@@ -0,0 +1,222 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.inventory.StockUpdateDto;
+import com.ats.ecommerce.event.StockLevelsChangedEvent;
+import com.ats.ecommerce.exception.BadRequestException;
+import com.ats.ecommerce.exception.TooManyRequestsException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.projection.StockLevelView;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.StockStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Registry of open stock streams, indexed by product. Mutations only mark products as
+ * dirty; the flush job reads all dirty levels in one query and sends each subscriber a
+ * single event, so a hot SKU selling hundreds of units a second still costs one push per
+ * interval. Levels that didn't move since the last push are not sent again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockStreamServiceImpl implements StockStreamService {
+
+    private static final String EVENT_NAME = "stock";
+
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuStockService hotSkuStockService;
+
+    private final Map<Long, Set<Subscription>> subscribersByProduct = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> lastSent = new ConcurrentHashMap<>();
+    private volatile long lastHeartbeatNanos = System.nanoTime();
+
+    @Value("${app.inventory.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.inventory.stream.max-products:50}")
+    private int maxProducts;
+
+    @Value("${app.inventory.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${app.inventory.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Override
+    public SseEmitter subscribe(Collection<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        ids.remove(null);
+        if (ids.isEmpty() || ids.size() > maxProducts) {
+            throw new BadRequestException("Subscribe to between 1 and " + maxProducts + " products");
+        }
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many open stock streams, fall back to polling");
+        }
+
+        Subscription subscription = new Subscription(
+                new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes)), Set.copyOf(ids));
+        subscription.emitter.onCompletion(() -> unsubscribe(subscription));
+        subscription.emitter.onTimeout(() -> unsubscribe(subscription));
+        subscription.emitter.onError(ex -> unsubscribe(subscription));
+
+        subscriptions.add(subscription);
+        for (Long productId : subscription.productIds) {
+            subscribersByProduct.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+
+        send(subscription, currentLevels(ids));
+        return subscription.emitter;
+    }
+
+    @Override
+    public void stockChanged(Collection<Long> productIds) {
+        if (subscribersByProduct.isEmpty()) {
+            return;
+        }
+        List<Long> watched = productIds.stream()
+                .filter(subscribersByProduct::containsKey)
+                .toList();
+        if (watched.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirty.addAll(watched);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dirty.addAll(watched);
+            }
+        });
+    }
+
+    // Direct, bulk and per-warehouse stock updates
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelsChanged(StockLevelsChangedEvent event) {
+        stockChanged(event.getProductIds());
+    }
+
+    @Override
+    public void flush() {
+        if (dirty.isEmpty()) {
+            heartbeat();
+            return;
+        }
+
+        List<Long> productIds = new ArrayList<>(dirty);
+        dirty.removeAll(productIds);
+
+        Map<Subscription, List<StockUpdateDto>> outgoing = new HashMap<>();
+        for (StockUpdateDto update : currentLevels(productIds)) {
+            if (Objects.equals(lastSent.put(update.getProductId(), update.getStockQuantity()),
+                    update.getStockQuantity())) {
+                continue;
+            }
+            for (Subscription subscription : subscribersByProduct.getOrDefault(update.getProductId(), Set.of())) {
+                outgoing.computeIfAbsent(subscription, s -> new ArrayList<>()).add(update);
+            }
+        }
+        outgoing.forEach(this::send);
+    }
+
+    private List<StockUpdateDto> currentLevels(Collection<Long> productIds) {
+        List<StockUpdateDto> levels = new ArrayList<>(productIds.size());
+        for (StockLevelView level : inventoryRepository.findStockLevels(productIds)) {
+            int quantity = level.getShardCount() > 0
+                    ? hotSkuStockService.getQuantity(level.getProductId())
+                    : level.getQuantity();
+            levels.add(new StockUpdateDto(level.getProductId(), Math.max(quantity - level.getReserved(), 0)));
+        }
+        return levels;
+    }
+
+    // Keeps idle streams from being cut by proxies
+    private void heartbeat() {
+        long now = System.nanoTime();
+        if (now - lastHeartbeatNanos < TimeUnit.SECONDS.toNanos(heartbeatSeconds)) {
+            return;
+        }
+        lastHeartbeatNanos = now;
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException ex) {
+                unsubscribe(subscription);
+            }
+        }
+    }
+
+    private void send(Subscription subscription, List<StockUpdateDto> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            subscription.emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .data(updates, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away; the container reports it too, but don't wait for that
+            unsubscribe(subscription);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.remove(subscription);
+        for (Long productId : subscription.productIds) {
+            subscribersByProduct.computeIfPresent(productId, (id, subscribers) -> {
+                subscribers.remove(subscription);
+                if (subscribers.isEmpty()) {
+                    lastSent.remove(id);
+                    return null;
+                }
+                return subscribers;
+            });
+        }
+        try {
+            subscription.emitter.complete();
+        } catch (IllegalStateException ignored) {
+            // Already completed
+        }
+        log.debug("Stock stream closed, {} still open", subscriptions.size());
+    }
+
+    private static final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Set<Long> productIds;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscription(SseEmitter emitter, Set<Long> productIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+        }
+    }
+}
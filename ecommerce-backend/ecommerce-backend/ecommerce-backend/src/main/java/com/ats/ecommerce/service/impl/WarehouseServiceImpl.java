@@ -0,0 +1,357 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.warehouse.LocationStockDto;
+import com.ats.ecommerce.dto.warehouse.OrderAllocationDto;
+import com.ats.ecommerce.dto.warehouse.WarehouseDto;
+import com.ats.ecommerce.dto.warehouse.WarehouseRequestDto;
+import com.ats.ecommerce.entity.Warehouse;
+import com.ats.ecommerce.exception.BadRequestException;
+import com.ats.ecommerce.exception.DuplicateResourceException;
+import com.ats.ecommerce.exception.ResourceNotFoundException;
+import com.ats.ecommerce.repository.LocationStockRepository;
+import com.ats.ecommerce.repository.OrderAllocationRepository;
+import com.ats.ecommerce.repository.WarehouseRepository;
+import com.ats.ecommerce.service.WarehouseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Location rows are locked in (product_id, warehouse_id) order after the inventory rows,
+ * the same order every stock path uses, and changed in memory before being written back
+ * in one JDBC batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class WarehouseServiceImpl implements WarehouseService {
+
+    // Beyond this many candidate warehouses the exact search gives way to priority order
+    private static final int MAX_EXACT_WAREHOUSES = 12;
+
+    private static final String LOCK_SLOTS =
+            "SELECT id, product_id, warehouse_id, quantity FROM location_stock " +
+            "WHERE product_id IN (:productIds) ORDER BY product_id, warehouse_id FOR UPDATE";
+
+    private static final String UPDATE_SLOT = "UPDATE location_stock SET quantity = ? WHERE id = ?";
+
+    private static final String ADD_TO_SLOT =
+            "INSERT INTO location_stock (product_id, warehouse_id, quantity) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)";
+
+    private static final String INSERT_ALLOCATION =
+            "INSERT INTO order_allocations (order_id, product_id, warehouse_id, quantity) VALUES (?, ?, ?, ?)";
+
+    private final WarehouseRepository warehouseRepository;
+    private final LocationStockRepository locationStockRepository;
+    private final OrderAllocationRepository orderAllocationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WarehouseDto> getWarehouses() {
+        return warehouseRepository.findAllByOrderByPriorityAscIdAsc()
+                .stream()
+                .map(WarehouseServiceImpl::toDto)
+                .toList();
+    }
+
+    @Override
+    public WarehouseDto createWarehouse(WarehouseRequestDto request) {
+        if (request.getCode() == null || request.getCode().isBlank() || request.getName() == null) {
+            throw new BadRequestException("Warehouse code and name are required");
+        }
+        if (warehouseRepository.existsByCodeIgnoreCase(request.getCode())) {
+            throw new DuplicateResourceException("Warehouse '" + request.getCode() + "' already exists");
+        }
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setCode(request.getCode().toUpperCase());
+        warehouse.setName(request.getName());
+        warehouse.setPriority(request.getPriority() != null ? request.getPriority() : 100);
+        return toDto(warehouseRepository.save(warehouse));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocationStockDto> getLocations(Long productId) {
+        Map<Long, String> codes = warehouseRepository.findAll().stream()
+                .collect(Collectors.toMap(Warehouse::getId, Warehouse::getCode));
+
+        return locationStockRepository.findByProductIdOrderByWarehouseId(productId)
+                .stream()
+                .map(l -> new LocationStockDto(l.getWarehouseId(), codes.get(l.getWarehouseId()), l.getQuantity()))
+                .toList();
+    }
+
+    @Override
+    public int setQuantity(Long productId, Long warehouseId, int quantity) {
+        if (quantity < 0) {
+            throw new BadRequestException("Quantity cannot be negative");
+        }
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse not found with id: " + warehouseId);
+        }
+
+        Slot slot = lockSlots(List.of(productId)).stream()
+                .filter(s -> s.warehouseId.equals(warehouseId))
+                .findFirst()
+                .orElse(null);
+
+        if (slot == null) {
+            jdbcTemplate.update(ADD_TO_SLOT, productId, warehouseId, quantity);
+            return quantity;
+        }
+        jdbcTemplate.update(UPDATE_SLOT, quantity, slot.id);
+        return quantity - slot.quantity;
+    }
+
+    @Override
+    public void absorb(Map<Long, Integer> deltasByProductId) {
+        Map<Long, Integer> deltas = deltasByProductId.entrySet().stream()
+                .filter(e -> e.getValue() != null && e.getValue() != 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Integer::sum, TreeMap::new));
+        List<Warehouse> warehouses = warehouseRepository.findByActiveTrueOrderByPriorityAscIdAsc();
+        if (deltas.isEmpty() || warehouses.isEmpty()) {
+            return;
+        }
+
+        Long defaultWarehouseId = warehouses.get(0).getId();
+        List<Object[]> additions = new ArrayList<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta > 0) {
+                additions.add(new Object[]{productId, defaultWarehouseId, delta});
+            }
+        });
+        if (!additions.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_TO_SLOT, additions);
+        }
+
+        List<Long> removing = deltas.entrySet().stream()
+                .filter(e -> e.getValue() < 0)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        if (removing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<Long, Slot>> slots = bySlot(lockSlots(removing));
+        for (Long productId : removing) {
+            int left = take(productId, -deltas.get(productId), slots, warehouseIds(warehouses), null);
+            if (left > 0) {
+                log.warn("Location stock of product {} was {} units short of its total", productId, left);
+            }
+        }
+        writeBack(slots);
+    }
+
+    @Override
+    public void allocate(Map<Long, Map<Long, Integer>> linesByOrderId) {
+        List<Warehouse> warehouses = warehouseRepository.findByActiveTrueOrderByPriorityAscIdAsc();
+        if (linesByOrderId.isEmpty() || warehouses.isEmpty()) {
+            return;
+        }
+
+        List<Long> productIds = linesByOrderId.values().stream()
+                .flatMap(lines -> lines.keySet().stream())
+                .distinct()
+                .sorted()
+                .toList();
+        Map<Long, Map<Long, Slot>> slots = bySlot(lockSlots(productIds));
+        List<Long> priorityOrder = warehouseIds(warehouses);
+
+        List<Object[]> allocations = new ArrayList<>();
+        linesByOrderId.forEach((orderId, lines) -> {
+            List<Long> chosen = chooseWarehouses(lines, slots, priorityOrder);
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                List<Object[]> taken = new ArrayList<>();
+                int left = take(line.getKey(), line.getValue(), slots, chosen, taken);
+                if (left > 0) {
+                    // The total said yes but the locations disagree; ship what is there
+                    log.warn("Order {}: {} units of product {} could not be allocated to a warehouse",
+                            orderId, left, line.getKey());
+                }
+                for (Object[] t : taken) {
+                    allocations.add(new Object[]{orderId, line.getKey(), t[0], t[1]});
+                }
+            }
+        });
+
+        writeBack(slots);
+        if (!allocations.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ALLOCATION, allocations);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderAllocationDto> getAllocation(Long orderId) {
+        Map<Long, String> codes = warehouseRepository.findAll().stream()
+                .collect(Collectors.toMap(Warehouse::getId, Warehouse::getCode));
+
+        return orderAllocationRepository.findByOrderIdOrderById(orderId)
+                .stream()
+                .map(a -> new OrderAllocationDto(a.getProductId(), a.getWarehouseId(),
+                        codes.get(a.getWarehouseId()), a.getQuantity()))
+                .toList();
+    }
+
+    @Override
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        orderAllocationRepository.restockOrders(orderIds);
+        orderAllocationRepository.deleteByOrderIdIn(orderIds);
+    }
+
+    // Smallest set of warehouses that can ship every line in full; among sets of the same
+    // size the one with the better-priority warehouses wins
+    private static List<Long> chooseWarehouses(Map<Long, Integer> lines, Map<Long, Map<Long, Slot>> slots,
+                                               List<Long> priorityOrder) {
+        List<Long> candidates = priorityOrder.stream()
+                .filter(w -> lines.keySet().stream().anyMatch(p -> stock(slots, p, w) > 0))
+                .toList();
+        if (candidates.size() > MAX_EXACT_WAREHOUSES) {
+            return candidates;
+        }
+
+        int n = candidates.size();
+        for (int size = 1; size <= n; size++) {
+            for (int mask = 1; mask < (1 << n); mask++) {
+                if (Integer.bitCount(mask) == size && covers(mask, candidates, lines, slots)) {
+                    List<Long> chosen = new ArrayList<>(size);
+                    for (int i = 0; i < n; i++) {
+                        if ((mask & (1 << i)) != 0) {
+                            chosen.add(candidates.get(i));
+                        }
+                    }
+                    return chosen;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean covers(int mask, List<Long> candidates, Map<Long, Integer> lines,
+                                  Map<Long, Map<Long, Slot>> slots) {
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            int available = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    available += stock(slots, line.getKey(), candidates.get(i));
+                }
+            }
+            if (available < line.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Takes a line from one warehouse if any single one can ship it, otherwise in the
+    // given order; returns the units that could not be placed
+    private static int take(Long productId, int quantity, Map<Long, Map<Long, Slot>> slots,
+                            List<Long> warehouseIds, List<Object[]> taken) {
+        Map<Long, Slot> byWarehouse = slots.getOrDefault(productId, Map.of());
+
+        for (Long warehouseId : warehouseIds) {
+            Slot slot = byWarehouse.get(warehouseId);
+            if (slot != null && slot.quantity >= quantity) {
+                slot.quantity -= quantity;
+                if (taken != null) {
+                    taken.add(new Object[]{warehouseId, quantity});
+                }
+                return 0;
+            }
+        }
+
+        int left = quantity;
+        for (Long warehouseId : warehouseIds) {
+            Slot slot = byWarehouse.get(warehouseId);
+            if (slot == null || slot.quantity == 0 || left == 0) {
+                continue;
+            }
+            int units = Math.min(slot.quantity, left);
+            slot.quantity -= units;
+            left -= units;
+            if (taken != null) {
+                taken.add(new Object[]{warehouseId, units});
+            }
+        }
+        return left;
+    }
+
+    private static int stock(Map<Long, Map<Long, Slot>> slots, Long productId, Long warehouseId) {
+        Slot slot = slots.getOrDefault(productId, Map.of()).get(warehouseId);
+        return slot != null ? slot.quantity : 0;
+    }
+
+    private List<Slot> lockSlots(Collection<Long> productIds) {
+        return namedParameterJdbcTemplate.query(LOCK_SLOTS,
+                new MapSqlParameterSource("productIds", productIds),
+                (rs, i) -> new Slot(rs.getLong("id"), rs.getLong("product_id"),
+                        rs.getLong("warehouse_id"), rs.getInt("quantity")));
+    }
+
+    private void writeBack(Map<Long, Map<Long, Slot>> slots) {
+        List<Object[]> changed = slots.values().stream()
+                .flatMap(byWarehouse -> byWarehouse.values().stream())
+                .filter(slot -> slot.quantity != slot.original)
+                .map(slot -> new Object[]{slot.quantity, slot.id})
+                .toList();
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SLOT, changed);
+        }
+    }
+
+    private static Map<Long, Map<Long, Slot>> bySlot(List<Slot> slots) {
+        Map<Long, Map<Long, Slot>> byProduct = new HashMap<>();
+        for (Slot slot : slots) {
+            byProduct.computeIfAbsent(slot.productId, p -> new LinkedHashMap<>()).put(slot.warehouseId, slot);
+        }
+        return byProduct;
+    }
+
+    private static List<Long> warehouseIds(List<Warehouse> warehouses) {
+        return warehouses.stream().map(Warehouse::getId).toList();
+    }
+
+    private static WarehouseDto toDto(Warehouse warehouse) {
+        return new WarehouseDto(warehouse.getId(), warehouse.getCode(), warehouse.getName(),
+                warehouse.getPriority(), warehouse.getActive());
+    }
+
+    private static final class Slot {
+
+        private final Long id;
+        private final Long productId;
+        private final Long warehouseId;
+        private final int original;
+        private int quantity;
+
+        Slot(Long id, Long productId, Long warehouseId, int quantity) {
+            this.id = id;
+            this.productId = productId;
+            this.warehouseId = warehouseId;
+            this.original = quantity;
+            this.quantity = quantity;
+        }
+    }
+}
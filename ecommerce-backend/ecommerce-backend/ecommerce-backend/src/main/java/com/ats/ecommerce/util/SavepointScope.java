@@ -0,0 +1,71 @@
+package com.ats.ecommerce.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Holds back transaction side effects (ledger movements, after-commit counter updates)
+ * produced under a JDBC savepoint. Rolling back to the savepoint undoes the rows but
+ * not what services queued in memory for the surrounding transaction; work passed to
+ * {@link #defer(Runnable)} while a scope is open only runs once the scope is released,
+ * and is dropped if it is closed without being released.
+ *
+ * Scopes are bound to the opening thread and nest: releasing an inner scope hands its
+ * work to the outer one.
+ */
+public final class SavepointScope implements AutoCloseable {
+
+    private static final ThreadLocal<Deque<SavepointScope>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final List<Runnable> deferred = new ArrayList<>();
+    private boolean closed;
+
+    private SavepointScope() {
+    }
+
+    public static SavepointScope open() {
+        SavepointScope scope = new SavepointScope();
+        OPEN.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * Runs the action now, or when the innermost open scope on this thread is released.
+     */
+    public static void defer(Runnable action) {
+        SavepointScope scope = OPEN.get().peek();
+        if (scope == null) {
+            action.run();
+        } else {
+            scope.deferred.add(action);
+        }
+    }
+
+    /**
+     * Call once the savepoint was released: closes the scope and runs the held-back work.
+     */
+    public void release() {
+        List<Runnable> released = List.copyOf(deferred);
+        close();
+        released.forEach(SavepointScope::defer);
+    }
+
+    /**
+     * Closes the scope; anything still held back is discarded.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Deque<SavepointScope> open = OPEN.get();
+        open.remove(this);
+        if (open.isEmpty()) {
+            OPEN.remove();
+        }
+        deferred.clear();
+    }
+}
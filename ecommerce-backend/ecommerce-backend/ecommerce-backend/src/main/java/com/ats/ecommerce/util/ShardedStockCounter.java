@@ -0,0 +1,98 @@
+package com.ats.ecommerce.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory mirror of the inventory_shards rows of hot SKUs, one atomic slot per
+ * shard. It only steers buyers towards shards that still have stock and lets
+ * sold-out products fail without a round trip; the conditional UPDATE on the
+ * shard row stays authoritative.
+ */
+@Component
+public class ShardedStockCounter {
+
+    private final Map<Long, AtomicIntegerArray> shardsByProduct = new ConcurrentHashMap<>();
+
+    public boolean isTracked(Long productId) {
+        return shardsByProduct.containsKey(productId);
+    }
+
+    public Set<Long> trackedProducts() {
+        return shardsByProduct.keySet();
+    }
+
+    public void load(Long productId, int[] quantities) {
+        shardsByProduct.put(productId, new AtomicIntegerArray(quantities));
+    }
+
+    public void evict(Long productId) {
+        shardsByProduct.remove(productId);
+    }
+
+    public int shardCount(Long productId) {
+        AtomicIntegerArray shards = shardsByProduct.get(productId);
+        return shards != null ? shards.length() : 0;
+    }
+
+    public int get(Long productId, int shard) {
+        AtomicIntegerArray shards = shardsByProduct.get(productId);
+        return shards != null && shard < shards.length() ? shards.get(shard) : 0;
+    }
+
+    public void set(Long productId, int shard, int quantity) {
+        AtomicIntegerArray shards = shardsByProduct.get(productId);
+        if (shards != null && shard < shards.length()) {
+            shards.set(shard, quantity);
+        }
+    }
+
+    public void add(Long productId, int shard, int delta) {
+        AtomicIntegerArray shards = shardsByProduct.get(productId);
+        if (shards != null && shard < shards.length()) {
+            shards.addAndGet(shard, delta);
+        }
+    }
+
+    public int total(Long productId) {
+        AtomicIntegerArray shards = shardsByProduct.get(productId);
+        if (shards == null) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = 0; i < shards.length(); i++) {
+            total += shards.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Picks a shard that appears to hold at least {@code quantity} units, starting
+     * from a random slot so concurrent buyers spread over different rows.
+     * @return the shard number, or -1 when no single shard can cover it
+     */
+    public int pickShard(Long productId, int quantity) {
+        AtomicIntegerArray shards = shardsByProduct.get(productId);
+        if (shards == null) {
+            return -1;
+        }
+        int start = ThreadLocalRandom.current().nextInt(shards.length());
+        for (int i = 0; i < shards.length(); i++) {
+            int shard = (start + i) % shards.length();
+            if (shards.get(shard) >= quantity) {
+                return shard;
+            }
+        }
+        return -1;
+    }
+
+    public int randomShard(Long productId) {
+        int count = shardCount(productId);
+        return count > 0 ? ThreadLocalRandom.current().nextInt(count) : 0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ats.ecommerce.util;
+
+import com.ats.ecommerce.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs named steps concurrently under one deadline that spans every {@link #join()}.
+ * The first step to fail, or the deadline, cancels (interrupts) all steps still
+ * running. Records how long each step took.
+ *
+ * Not thread-safe: fork and join from the owning thread only.
+ */
+public class StepScope implements AutoCloseable {
+
+    private final CompletionService<Object> completion;
+    private final long deadlineNanos;
+    private final List<Future<Object>> forked = new ArrayList<>();
+    private final Map<String, Long> latencyMs = Collections.synchronizedMap(new LinkedHashMap<>());
+    private int pending;
+
+    public StepScope(ExecutorService executor, Duration timeout) {
+        this.completion = new ExecutorCompletionService<>(executor);
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Starts a step. The returned supplier yields its result once {@link #join()} returned.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor is saturated
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> fork(String name, Callable<T> step) {
+        Future<Object> future = completion.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return step.call();
+            } finally {
+                latencyMs.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+        forked.add(future);
+        pending++;
+        return () -> {
+            try {
+                return (T) future.get();
+            } catch (InterruptedException | ExecutionException ex) {
+                throw new IllegalStateException("Step " + name + " has not completed", ex);
+            }
+        };
+    }
+
+    /**
+     * Waits for every forked step; rethrows the first failure after cancelling the rest.
+     * @throws ServiceUnavailableException if the deadline passes first
+     */
+    public void join() {
+        try {
+            while (pending > 0) {
+                long remaining = deadlineNanos - System.nanoTime();
+                Future<Object> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    cancelAll();
+                    throw new ServiceUnavailableException("Checkout did not complete in time, please retry");
+                }
+                pending--;
+                done.get();
+            }
+        } catch (ExecutionException ex) {
+            cancelAll();
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause().getMessage(), ex.getCause());
+        } catch (InterruptedException ex) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for checkout steps", ex);
+        }
+    }
+
+    public Map<String, Long> latencies() {
+        synchronized (latencyMs) {
+            return new LinkedHashMap<>(latencyMs);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        forked.forEach(future -> future.cancel(true));
+        pending = 0;
+    }
+}
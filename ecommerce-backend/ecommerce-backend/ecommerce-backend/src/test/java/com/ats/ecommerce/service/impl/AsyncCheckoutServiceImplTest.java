@@ -0,0 +1,94 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.entity.OrderIntent;
+import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.entity.enums.OrderIntentStatus;
+import com.ats.ecommerce.mapper.OrderMapper;
+import com.ats.ecommerce.repository.OrderIntentRepository;
+import com.ats.ecommerce.repository.UserRepository;
+import com.ats.ecommerce.service.CheckoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AsyncCheckoutServiceImplTest {
+
+    private static final Long INTENT_ID = 5L;
+    private static final Long CART_ID = 9L;
+
+    private final User user = User.builder().id(1L).build();
+
+    private CheckoutService checkoutService;
+    private OrderIntentRepository orderIntentRepository;
+    private AsyncCheckoutServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = mock(CheckoutService.class);
+        orderIntentRepository = mock(OrderIntentRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // An intent left QUEUED in the table, e.g. by a node that was restarted
+        OrderIntent intent = new OrderIntent(INTENT_ID, user.getId(), CART_ID, OrderIntentStatus.QUEUED,
+                null, null, LocalDateTime.now().minusMinutes(10), LocalDateTime.now().minusMinutes(10));
+        when(orderIntentRepository.findByStatusAndUpdatedAtBeforeOrderById(eq(OrderIntentStatus.QUEUED), any()))
+                .thenReturn(List.of(intent));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(checkoutService.checkout(CART_ID, user))
+                .thenReturn(new OrderDto(42L, "PENDING", BigDecimal.TEN, List.of()));
+
+        service = new AsyncCheckoutServiceImpl(checkoutService, orderIntentRepository, userRepository,
+                mock(OrderMapper.class), transactionTemplate);
+        ReflectionTestUtils.setField(service, "laneCount", 2);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "staleSeconds", 300L);
+        service.startLanes();
+    }
+
+    @Test
+    void startupRequeuesQueuedIntentsAndFailsStaleProcessingOnes() throws InterruptedException {
+        when(orderIntentRepository.transition(INTENT_ID, OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING))
+                .thenReturn(1);
+
+        service.recoverAfterStartup();
+        service.stopLanes();
+
+        verify(orderIntentRepository).failStale(eq(OrderIntentStatus.PROCESSING), eq(OrderIntentStatus.FAILED),
+                any(), anyString());
+        verify(checkoutService).checkout(CART_ID, user);
+        verify(orderIntentRepository).updateStatus(INTENT_ID, OrderIntentStatus.COMPLETED, 42L, null);
+    }
+
+    @Test
+    void requeuedIntentAlreadyClaimedElsewhereIsNotCheckedOutAgain() throws InterruptedException {
+        when(orderIntentRepository.transition(INTENT_ID, OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING))
+                .thenReturn(0);
+
+        service.recoverStale();
+        service.stopLanes();
+
+        verify(checkoutService, never()).checkout(anyLong(), any());
+        verify(orderIntentRepository, never()).updateStatus(eq(INTENT_ID), any(), any(), any());
+    }
+}
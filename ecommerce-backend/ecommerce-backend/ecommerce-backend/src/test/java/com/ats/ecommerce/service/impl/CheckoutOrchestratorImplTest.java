@@ -0,0 +1,84 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.repository.UserRepository;
+import com.ats.ecommerce.repository.projection.CartLineView;
+import com.ats.ecommerce.service.CartItemService;
+import com.ats.ecommerce.service.CheckoutService;
+import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.StockHoldService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CheckoutOrchestratorImplTest {
+
+    private static final Long CART_ID = 9L;
+    private static final Long PRODUCT_ID = 7L;
+
+    private final User user = User.builder().id(1L).email("buyer@example.com").enabled(true).build();
+
+    private CheckoutService checkoutService;
+    private StockHoldService stockHoldService;
+    private CheckoutOrchestratorImpl orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        CartRepository cartRepository = mock(CartRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        checkoutService = mock(CheckoutService.class);
+        stockHoldService = mock(StockHoldService.class);
+
+        // Three units in the cart, and every remaining unit is held
+        CartLineView line = mock(CartLineView.class);
+        when(line.getProductId()).thenReturn(PRODUCT_ID);
+        when(line.getQuantity()).thenReturn(3);
+        when(line.getCurrentPrice()).thenReturn(BigDecimal.TEN);
+        when(line.getStockQuantity()).thenReturn(0);
+        when(cartRepository.findOwnerId(CART_ID)).thenReturn(Optional.of(user.getId()));
+        when(cartRepository.findCartLines(CART_ID)).thenReturn(List.of(line));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        orchestrator = new CheckoutOrchestratorImpl(cartRepository, userRepository, checkoutService,
+                mock(OrderService.class), mock(CartItemService.class), stockHoldService);
+        ReflectionTestUtils.setField(orchestrator, "deadlineMs", 5_000L);
+        ReflectionTestUtils.setField(orchestrator, "threadCount", 2);
+        ReflectionTestUtils.setField(orchestrator, "queueCapacity", 10);
+        orchestrator.startWorkers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.stopWorkers();
+    }
+
+    @Test
+    void cartHoldingTheLastUnitsPassesValidation() {
+        when(stockHoldService.heldByCart(CART_ID)).thenReturn(Map.of(PRODUCT_ID, 3));
+        // Stop at the order step; reaching it means validation passed
+        IllegalStateException placed = new IllegalStateException("order step reached");
+        when(checkoutService.checkout(CART_ID, user)).thenThrow(placed);
+
+        assertSame(placed, assertThrows(IllegalStateException.class,
+                () -> orchestrator.startStripeCheckout(CART_ID, user)));
+    }
+
+    @Test
+    void unitsHeldByOtherCartsFailValidation() {
+        when(stockHoldService.heldByCart(CART_ID)).thenReturn(Map.of());
+
+        assertThrows(InsufficientStockException.class, () -> orchestrator.startStripeCheckout(CART_ID, user));
+        verifyNoInteractions(checkoutService);
+    }
+}
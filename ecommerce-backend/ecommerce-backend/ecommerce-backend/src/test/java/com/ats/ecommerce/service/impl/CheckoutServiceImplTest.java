@@ -0,0 +1,77 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.order.CheckoutPreflightDto;
+import com.ats.ecommerce.entity.User;
+import com.ats.ecommerce.mapper.OrderMapper;
+import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.repository.projection.CartLineView;
+import com.ats.ecommerce.service.CartService;
+import com.ats.ecommerce.service.OrderBatchWriter;
+import com.ats.ecommerce.service.OrderService;
+import com.ats.ecommerce.service.StockHoldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CheckoutServiceImplTest {
+
+    private static final Long CART_ID = 9L;
+
+    private final User user = User.builder().id(1L).build();
+
+    private CartRepository cartRepository;
+    private StockHoldService stockHoldService;
+    private CheckoutServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository = mock(CartRepository.class);
+        stockHoldService = mock(StockHoldService.class);
+        when(cartRepository.findOwnerId(CART_ID)).thenReturn(Optional.of(user.getId()));
+
+        service = new CheckoutServiceImpl(mock(CartService.class), mock(OrderService.class), mock(OrderMapper.class),
+                stockHoldService, mock(OrderBatchWriter.class), mock(TransactionTemplate.class), cartRepository);
+    }
+
+    private void line(Long productId, int quantity, int stockQuantity) {
+        CartLineView line = mock(CartLineView.class);
+        when(line.getCartId()).thenReturn(CART_ID);
+        when(line.getCartVersion()).thenReturn(1L);
+        when(line.getProductId()).thenReturn(productId);
+        when(line.getQuantity()).thenReturn(quantity);
+        when(line.getCurrentPrice()).thenReturn(BigDecimal.TEN);
+        when(line.getUnitPrice()).thenReturn(BigDecimal.TEN);
+        when(line.getStockQuantity()).thenReturn(stockQuantity);
+        when(cartRepository.findCartLines(CART_ID)).thenReturn(List.of(line));
+    }
+
+    @Test
+    void cartHoldingTheLastUnitsIsReportedInStock() {
+        // Every remaining unit is held by this very cart
+        line(7L, 3, 0);
+        when(stockHoldService.heldByCart(CART_ID)).thenReturn(Map.of(7L, 3));
+
+        CheckoutPreflightDto preflight = service.preflight(CART_ID, user);
+
+        assertEquals(3, preflight.getLines().get(0).getAvailableQuantity());
+        assertTrue(preflight.getLines().get(0).isAvailable());
+    }
+
+    @Test
+    void unitsHeldByOtherCartsStillCountAsTaken() {
+        line(7L, 3, 2);
+        when(stockHoldService.heldByCart(CART_ID)).thenReturn(Map.of());
+
+        CheckoutPreflightDto preflight = service.preflight(CART_ID, user);
+
+        assertFalse(preflight.getLines().get(0).isAvailable());
+    }
+}
@@ -0,0 +1,107 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.InventoryShard;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.InventoryShardRepository;
+import com.ats.ecommerce.util.ShardedStockCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotSkuStockServiceImplTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    // What the shard rows really hold; the counter and the shard list can lag behind it
+    private final AtomicIntegerArray rows = new AtomicIntegerArray(3);
+
+    private InventoryShardRepository shardRepository;
+    private ShardedStockCounter counter;
+    private HotSkuStockServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        shardRepository = mock(InventoryShardRepository.class);
+        counter = new ShardedStockCounter();
+
+        // Behaves like UPDATE inventory_shards SET quantity = quantity - ? WHERE ... AND quantity >= ?
+        when(shardRepository.decrementIfAvailable(eq(PRODUCT_ID), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int shard = invocation.getArgument(1);
+            int requested = invocation.getArgument(2);
+            if (rows.get(shard) < requested) {
+                return 0;
+            }
+            rows.addAndGet(shard, -requested);
+            return 1;
+        });
+        when(shardRepository.increment(eq(PRODUCT_ID), anyInt(), anyInt())).thenAnswer(invocation -> {
+            rows.addAndGet(invocation.getArgument(1), invocation.<Integer>getArgument(2));
+            return 1;
+        });
+
+        service = new HotSkuStockServiceImpl(mock(InventoryRepository.class), shardRepository, counter);
+    }
+
+    private void shards(int... quantities) {
+        for (int shard = 0; shard < quantities.length; shard++) {
+            rows.set(shard, quantities[shard]);
+        }
+        counter.load(PRODUCT_ID, quantities.clone());
+        when(shardRepository.findByProductIdOrderByShardNo(PRODUCT_ID)).thenReturn(List.of(
+                new InventoryShard(1L, PRODUCT_ID, 0, quantities[0]),
+                new InventoryShard(2L, PRODUCT_ID, 1, quantities[1]),
+                new InventoryShard(3L, PRODUCT_ID, 2, quantities[2])));
+    }
+
+    @Test
+    void takeSpanningShardsCollectsFromEachInOrder() {
+        shards(3, 3, 3);
+
+        assertTrue(service.take(PRODUCT_ID, 7));
+
+        assertEquals(0, rows.get(0));
+        assertEquals(0, rows.get(1));
+        assertEquals(2, rows.get(2));
+        assertEquals(2, counter.total(PRODUCT_ID));
+        verify(shardRepository, never()).increment(eq(PRODUCT_ID), anyInt(), anyInt());
+    }
+
+    @Test
+    void multiShardTakeThatFallsShortRestoresTheShardsAlreadyTaken() {
+        shards(3, 3, 3);
+        // Another node sold most of shard 2 after the list was read
+        rows.set(2, 1);
+
+        assertFalse(service.take(PRODUCT_ID, 8));
+
+        verify(shardRepository).increment(PRODUCT_ID, 0, 3);
+        verify(shardRepository).increment(PRODUCT_ID, 1, 3);
+        assertEquals(3, rows.get(0));
+        assertEquals(3, rows.get(1));
+        assertEquals(1, rows.get(2));
+        // The counter only moves after a successful take
+        assertEquals(9, counter.total(PRODUCT_ID));
+    }
+
+    @Test
+    void resetReportsWhatTheLockedShardsHeld() {
+        when(shardRepository.lockByProductId(PRODUCT_ID)).thenReturn(List.of(
+                new InventoryShard(1L, PRODUCT_ID, 0, 4),
+                new InventoryShard(2L, PRODUCT_ID, 1, 0),
+                new InventoryShard(3L, PRODUCT_ID, 2, 3)));
+
+        assertEquals(7, service.reset(PRODUCT_ID, 9));
+
+        verify(shardRepository).setQuantity(PRODUCT_ID, 0, 3);
+        verify(shardRepository).setQuantity(PRODUCT_ID, 1, 3);
+        verify(shardRepository).setQuantity(PRODUCT_ID, 2, 3);
+        verify(shardRepository, never()).findByProductIdOrderByShardNo(PRODUCT_ID);
+    }
+}
@@ -0,0 +1,126 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.inventory.BulkStockUpdateResultDto;
+import com.ats.ecommerce.dto.inventory.InventoryResponseDto;
+import com.ats.ecommerce.dto.inventory.StockAdjustmentDto;
+import com.ats.ecommerce.entity.enums.StockAdjustmentMode;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.ProductRepository;
+import com.ats.ecommerce.repository.projection.StockLevelView;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.LowStockAlertService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InventoryServiceImplTest {
+
+    private InventoryRepository inventoryRepository;
+    private HotSkuStockService hotSkuStockService;
+    private StockLedgerService stockLedgerService;
+    private WarehouseService warehouseService;
+    private JdbcTemplate jdbcTemplate;
+    private InventoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(InventoryRepository.class);
+        hotSkuStockService = mock(HotSkuStockService.class);
+        stockLedgerService = mock(StockLedgerService.class);
+        warehouseService = mock(WarehouseService.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new InventoryServiceImpl(inventoryRepository, mock(ProductRepository.class), hotSkuStockService,
+                mock(OutboxService.class), jdbcTemplate, transactionTemplate, mock(ApplicationEventPublisher.class),
+                mock(LowStockAlertService.class), stockLedgerService, warehouseService);
+        ReflectionTestUtils.setField(service, "chunkSize", 1000);
+        ReflectionTestUtils.setField(service, "maxRows", 100_000);
+    }
+
+    private static StockLevelView level(Long productId, int quantity, int shardCount) {
+        StockLevelView level = mock(StockLevelView.class);
+        when(level.getProductId()).thenReturn(productId);
+        when(level.getQuantity()).thenReturn(quantity);
+        when(level.getReserved()).thenReturn(0);
+        when(level.getShardCount()).thenReturn(shardCount);
+        return level;
+    }
+
+    @Test
+    void chunkOfOnlyShardedRowsIsAppliedWithoutABatch() {
+        List<StockLevelView> levels = List.of(level(1L, 0, 4), level(2L, 0, 4));
+        when(inventoryRepository.lockStockLevels(anyCollection())).thenReturn(levels);
+        when(inventoryRepository.findStockLevels(anyCollection())).thenReturn(levels);
+        when(hotSkuStockService.reset(1L, 10)).thenReturn(8);
+        when(hotSkuStockService.getQuantity(1L)).thenReturn(10);
+        when(hotSkuStockService.getQuantity(2L)).thenReturn(5);
+
+        BulkStockUpdateResultDto result = service.bulkUpdate(List.of(
+                new StockAdjustmentDto(1L, StockAdjustmentMode.SET, 10),
+                new StockAdjustmentDto(2L, StockAdjustmentMode.DELTA, 5),
+                new StockAdjustmentDto(3L, StockAdjustmentMode.SET, 1)));
+
+        assertEquals(2, result.getApplied());
+        assertEquals(List.of("APPLIED", "APPLIED", "NOT_FOUND"),
+                result.getResults().stream().map(r -> r.getStatus()).toList());
+        verify(hotSkuStockService).reset(1L, 10);
+        verify(hotSkuStockService).put(2L, 5);
+        verify(stockLedgerService).record(1L, StockMovementType.ADJUSTMENT, 2, "bulk");
+        verify(stockLedgerService).record(2L, StockMovementType.RECEIPT, 5, "bulk");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void updateStockWritesOnlyTheQuantityOfTheLockedRow() {
+        StockLevelView level = level(1L, 30, 0);
+        when(level.getReserved()).thenReturn(4);
+        when(inventoryRepository.lockStockLevels(List.of(1L))).thenReturn(List.of(level));
+
+        InventoryResponseDto response = service.updateStock(1L, 25);
+
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).lockStockLevels(List.of(1L));
+        order.verify(inventoryRepository).setQuantity(1L, 25);
+        verify(inventoryRepository, never()).save(any());
+        // The delta is taken from the locked row, so ledger and warehouses agree with it
+        verify(stockLedgerService).record(1L, StockMovementType.ADJUSTMENT, -5, null);
+        verify(warehouseService).absorb(Map.of(1L, -5));
+        assertEquals(21, response.getAvailable());
+    }
+
+    @Test
+    void hotSkuAdjustmentDeltaComesFromTheLockedShards() {
+        StockLevelView level = level(2L, 0, 4);
+        when(inventoryRepository.lockStockLevels(List.of(2L))).thenReturn(List.of(level));
+        when(hotSkuStockService.reset(2L, 40)).thenReturn(46);
+
+        service.updateStock(2L, 40);
+
+        verify(hotSkuStockService, never()).getQuantity(anyLong());
+        verify(stockLedgerService).record(2L, StockMovementType.ADJUSTMENT, -6, null);
+        verify(warehouseService).absorb(Map.of(2L, -6));
+    }
+}
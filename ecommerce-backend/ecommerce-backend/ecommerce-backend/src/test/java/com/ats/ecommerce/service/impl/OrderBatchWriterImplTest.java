@@ -0,0 +1,332 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.dto.order.OrderDto;
+import com.ats.ecommerce.entity.StockMovement;
+import com.ats.ecommerce.entity.enums.StockMovementType;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.exception.ServiceUnavailableException;
+import com.ats.ecommerce.repository.CartRepository;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.InventoryShardRepository;
+import com.ats.ecommerce.repository.StockMovementRepository;
+import com.ats.ecommerce.repository.StockSnapshotRepository;
+import com.ats.ecommerce.repository.projection.CartLineView;
+import com.ats.ecommerce.service.CartService;
+import com.ats.ecommerce.service.LowStockAlertService;
+import com.ats.ecommerce.service.OrderEventService;
+import com.ats.ecommerce.service.OrderSummaryService;
+import com.ats.ecommerce.service.OutboxService;
+import com.ats.ecommerce.service.StockHoldService;
+import com.ats.ecommerce.service.StockReservationService;
+import com.ats.ecommerce.service.StockStreamService;
+import com.ats.ecommerce.service.WarehouseService;
+import com.ats.ecommerce.util.ShardedStockCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderBatchWriterImplTest {
+
+    private static final Long PRODUCT_ID = 7L;
+
+    // Units on the shelf, and units each cart's soft holds took off it
+    private final Map<Long, Integer> stock = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> heldByCart = new ConcurrentHashMap<>();
+
+    private final AtomicReference<AtomicBoolean> rollbackOnly = new AtomicReference<>();
+    private final AtomicLong nextOrderId = new AtomicLong(100);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private CartRepository cartRepository;
+    private CartService cartService;
+    private StockHoldService stockHoldService;
+    private StockReservationService stockReservationService;
+    private TransactionTemplate transactionTemplate;
+    private OrderBatchWriterImpl writer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cartRepository = mock(CartRepository.class);
+        cartService = mock(CartService.class);
+        stockHoldService = mock(StockHoldService.class);
+        stockReservationService = mock(StockReservationService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.setSavepoint()).thenAnswer(invocation -> mock(Savepoint.class));
+
+        // Releasing a cart's holds puts its units back on the shelf
+        doAnswer(invocation -> {
+            Integer held = heldByCart.remove(invocation.<Long>getArgument(0));
+            if (held != null) {
+                stock.merge(PRODUCT_ID, held, Integer::sum);
+            }
+            return null;
+        }).when(stockHoldService).releaseCart(anyLong());
+
+        when(stockReservationService.tryReserve(anyMap())).thenAnswer(invocation -> {
+            Map<Long, Integer> lines = invocation.getArgument(0);
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                if (stock.getOrDefault(line.getKey(), 0) < line.getValue()) {
+                    return Optional.of(line.getKey());
+                }
+                stock.merge(line.getKey(), -line.getValue(), Integer::sum);
+            }
+            return Optional.empty();
+        });
+
+        // Each execute gets its own status, which a failing participant can mark rollback-only
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            AtomicBoolean flag = new AtomicBoolean();
+            rollbackOnly.set(flag);
+            TransactionStatus status = mock(TransactionStatus.class);
+            when(status.isRollbackOnly()).thenAnswer(ignored -> flag.get());
+            return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(status);
+        });
+
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keys = invocation.getArgument(2);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keys.getKeyList().add(Map.of("GENERATED_KEY", nextOrderId.getAndIncrement()));
+            }
+            return new int[setter.getBatchSize()];
+        });
+
+        writer = new OrderBatchWriterImpl(cartRepository, cartService, stockReservationService, stockHoldService,
+                mock(OrderSummaryService.class), mock(OrderEventService.class), mock(OutboxService.class),
+                mock(WarehouseService.class), jdbcTemplate, dataSource, mock(EntityManager.class),
+                transactionTemplate);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 2);
+        ReflectionTestUtils.setField(writer, "windowMs", 500L);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10);
+        ReflectionTestUtils.setField(writer, "waitTimeoutMs", 5000L);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+        callers.shutdownNow();
+    }
+
+    private void cart(Long cartId, int quantity) {
+        List<CartLineView> lines = List.of(line(cartId, PRODUCT_ID, quantity));
+        when(cartRepository.findCartLines(cartId)).thenReturn(lines);
+    }
+
+    private static CartLineView line(Long cartId, Long productId, int quantity) {
+        CartLineView line = mock(CartLineView.class);
+        when(line.getCartId()).thenReturn(cartId);
+        when(line.getProductId()).thenReturn(productId);
+        when(line.getSku()).thenReturn("SKU-" + productId);
+        when(line.getProductName()).thenReturn("Widget");
+        when(line.getQuantity()).thenReturn(quantity);
+        when(line.getCurrentPrice()).thenReturn(BigDecimal.TEN);
+        return line;
+    }
+
+    private void hold(Long cartId, int quantity) {
+        stock.merge(PRODUCT_ID, -quantity, Integer::sum);
+        heldByCart.put(cartId, quantity);
+    }
+
+    private Future<OrderDto> placeAsync(Long cartId) {
+        return callers.submit(() -> writer.place(1L, cartId));
+    }
+
+    @Test
+    void batchedCartsHoldingTheLastUnitsCanStillCheckOut() throws Exception {
+        stock.put(PRODUCT_ID, 5);
+        cart(1L, 2);
+        cart(2L, 3);
+        hold(1L, 2);
+        hold(2L, 3);
+
+        Future<OrderDto> first = placeAsync(1L);
+        Future<OrderDto> second = placeAsync(2L);
+
+        assertEquals(2, first.get(5, TimeUnit.SECONDS).getItems().get(0).getQuantity());
+        assertEquals(3, second.get(5, TimeUnit.SECONDS).getItems().get(0).getQuantity());
+        assertEquals(0, stock.get(PRODUCT_ID));
+        verify(transactionTemplate, times(1)).execute(any());
+
+        InOrder order = inOrder(stockHoldService, stockReservationService);
+        order.verify(stockHoldService).releaseCart(anyLong());
+        order.verify(stockReservationService).tryReserve(anyMap());
+    }
+
+    @Test
+    void holdsOfOtherCartsStillCountAgainstAnOrder() throws Exception {
+        stock.put(PRODUCT_ID, 4);
+        cart(1L, 2);
+        hold(2L, 3);
+
+        Future<OrderDto> first = placeAsync(1L);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientStockException.class, failure.getCause());
+        assertEquals(3, heldByCart.get(2L));
+    }
+
+    @Test
+    void failureThatMarksTheBatchRollbackOnlyRetriesTheOtherOrders() throws Exception {
+        stock.put(PRODUCT_ID, 100);
+        cart(1L, 1);
+        cart(2L, 1);
+        // A participating @Transactional call that throws poisons the shared transaction
+        RuntimeException poisoned = new RuntimeException("Cart not found");
+        doAnswer(invocation -> {
+            rollbackOnly.get().set(true);
+            throw poisoned;
+        }).when(cartService).clearCart(2L);
+
+        Future<OrderDto> first = placeAsync(1L);
+        Future<OrderDto> second = placeAsync(2L);
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getOrderId());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertSame(poisoned, failure.getCause());
+        verify(transactionTemplate, atLeast(2)).execute(any());
+    }
+
+    @Test
+    void orderRolledBackToItsSavepointLeavesNoLedgerRowsOrCounterChanges() throws Exception {
+        Long plainId = 8L;
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        InventoryShardRepository shardRepository = mock(InventoryShardRepository.class);
+        JdbcTemplate ledgerJdbc = mock(JdbcTemplate.class);
+        ShardedStockCounter counter = new ShardedStockCounter();
+        counter.load(PRODUCT_ID, new int[]{5, 5});
+
+        when(shardRepository.decrementIfAvailable(eq(PRODUCT_ID), anyInt(), anyInt())).thenReturn(1);
+        when(inventoryRepository.decrementIfAvailable(eq(plainId), anyInt())).thenReturn(0);
+        when(inventoryRepository.findShardCount(plainId)).thenReturn(Optional.empty());
+
+        List<StockMovement> ledgerRows = new ArrayList<>();
+        when(ledgerJdbc.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    ledgerRows.addAll(invocation.<Collection<StockMovement>>getArgument(1));
+                    return new int[0][];
+                });
+
+        HotSkuStockServiceImpl hotSkus = new HotSkuStockServiceImpl(inventoryRepository, shardRepository, counter);
+        StockLedgerServiceImpl ledger = new StockLedgerServiceImpl(mock(StockMovementRepository.class),
+                mock(StockSnapshotRepository.class), inventoryRepository, hotSkus, ledgerJdbc);
+        StockReservationServiceImpl reservations = new StockReservationServiceImpl(inventoryRepository, hotSkus,
+                mock(LowStockAlertService.class), ledger, mock(StockStreamService.class));
+        doAnswer(invocation -> reservations.tryReserve(invocation.getArgument(0)))
+                .when(stockReservationService).tryReserve(anyMap());
+        doAnswer(invocation -> {
+            ledger.record(PRODUCT_ID, StockMovementType.RESERVATION_RELEASE, -1, "cart:" + invocation.getArgument(0));
+            return null;
+        }).when(stockHoldService).releaseCart(anyLong());
+
+        // Runs the batch with real synchronizations, committing the way Spring would
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                Object result = invocation.<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(mock(TransactionStatus.class));
+                List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+                synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+                synchronizations.forEach(synchronization ->
+                        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                return result;
+            } finally {
+                TransactionSynchronizationManager.clear();
+            }
+        }).when(transactionTemplate).execute(any());
+
+        // Cart 1 takes 3 hot units, then comes up short on its second line
+        List<CartLineView> shortLines = List.of(line(1L, PRODUCT_ID, 3), line(1L, plainId, 5));
+        when(cartRepository.findCartLines(1L)).thenReturn(shortLines);
+        cart(2L, 1);
+
+        Future<OrderDto> shortOrder = placeAsync(1L);
+        Future<OrderDto> placed = placeAsync(2L);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> shortOrder.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientStockException.class, failure.getCause());
+        assertNotNull(placed.get(5, TimeUnit.SECONDS).getOrderId());
+
+        // Only cart 2's hold release and sale made it into the ledger and the counter
+        assertEquals(List.of("RESERVATION_RELEASE:cart:2", "SALE:null"), ledgerRows.stream()
+                .map(row -> row.getType() + ":" + row.getReference())
+                .toList());
+        assertEquals(9, counter.total(PRODUCT_ID));
+    }
+
+    @Test
+    void callersStopWaitingAfterTheTimeoutAndQueuedOrdersAreWithdrawn() throws Exception {
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 1);
+        ReflectionTestUtils.setField(writer, "waitTimeoutMs", 200L);
+        stock.put(PRODUCT_ID, 10);
+        cart(1L, 1);
+        cart(2L, 1);
+        // The first batch stalls in its commit, so the second order stays queued
+        CountDownLatch stalled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            stalled.await(5, TimeUnit.SECONDS);
+            return List.of();
+        }).when(transactionTemplate).execute(any());
+
+        Future<OrderDto> first = placeAsync(1L);
+        verify(transactionTemplate, timeout(1000)).execute(any());
+        Future<OrderDto> second = placeAsync(2L);
+
+        ExecutionException inFlight = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceUnavailableException.class, inFlight.getCause());
+        assertTrue(inFlight.getCause().getMessage().contains("still being processed"));
+
+        ExecutionException withdrawn = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceUnavailableException.class, withdrawn.getCause());
+        assertTrue(withdrawn.getCause().getMessage().contains("please retry"));
+
+        stalled.countDown();
+        verify(transactionTemplate, after(300).times(1)).execute(any());
+    }
+}
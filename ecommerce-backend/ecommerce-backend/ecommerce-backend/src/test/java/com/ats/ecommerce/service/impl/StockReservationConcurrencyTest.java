@@ -0,0 +1,135 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.entity.Inventory;
+import com.ats.ecommerce.entity.Product;
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.repository.ProductRepository;
+import com.ats.ecommerce.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races reservations on the configured MySQL database, so the conditional UPDATEs
+ * run against real InnoDB row locks rather than a mock.
+ */
+@SpringBootTest
+class StockReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 5;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    private final ExecutorService buyers = Executors.newFixedThreadPool(THREADS);
+    private final AtomicInteger placed = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        buyers.shutdownNow();
+    }
+
+    @Test
+    void buyersRacingForOneRowNeverOversell() throws Exception {
+        Long productId = product(30);
+
+        race(thread -> Map.of(productId, 1));
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(30, placed.get());
+        assertEquals(0, quantity(productId));
+    }
+
+    @Test
+    void crossedMultiLineOrdersNeitherDeadlockNorOversell() throws Exception {
+        Long first = product(40);
+        Long second = product(30);
+
+        // Half the buyers list the lines the other way round; the second line runs out first
+        race(thread -> {
+            Map<Long, Integer> lines = new LinkedHashMap<>();
+            List<Long> order = thread % 2 == 0 ? List.of(first, second) : List.of(second, first);
+            order.forEach(productId -> lines.put(productId, 1));
+            return lines;
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures (deadlock?): " + unexpected);
+        assertEquals(30, placed.get());
+        // Orders short on the second line gave their first line back
+        assertEquals(10, quantity(first));
+        assertEquals(0, quantity(second));
+    }
+
+    private void race(LinesForThread linesForThread) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            Map<Long, Integer> lines = linesForThread.lines(thread);
+            buyers.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        try {
+                            stockReservationService.reserve(lines);
+                            placed.incrementAndGet();
+                        } catch (InsufficientStockException ex) {
+                            // Sold out: expected once stock is gone
+                        }
+                    }
+                } catch (Throwable ex) {
+                    unexpected.add(ex);
+                }
+            });
+        }
+        buyers.shutdown();
+        // InnoDB gives up on a lock wait after 50s by default; hanging that long is a failure too
+        assertTrue(buyers.awaitTermination(60, TimeUnit.SECONDS), "Buyers did not finish");
+    }
+
+    private Long product(int quantity) {
+        Product product = new Product();
+        product.setSku("RACE-" + UUID.randomUUID());
+        product.setName("Race product");
+        product.setPrice(BigDecimal.TEN);
+        product.setActive(true);
+
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQuantity(quantity);
+        product.setInventory(inventory);
+
+        return productRepository.save(product).getId();
+    }
+
+    private int quantity(Long productId) {
+        return inventoryRepository.findStockLevel(productId).orElseThrow().getQuantity();
+    }
+
+    @FunctionalInterface
+    private interface LinesForThread {
+        Map<Long, Integer> lines(int thread);
+    }
+}
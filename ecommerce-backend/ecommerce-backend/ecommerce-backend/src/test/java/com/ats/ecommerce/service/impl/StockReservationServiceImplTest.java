@@ -0,0 +1,113 @@
+package com.ats.ecommerce.service.impl;
+
+import com.ats.ecommerce.exception.InsufficientStockException;
+import com.ats.ecommerce.repository.InventoryRepository;
+import com.ats.ecommerce.service.HotSkuStockService;
+import com.ats.ecommerce.service.LowStockAlertService;
+import com.ats.ecommerce.service.StockLedgerService;
+import com.ats.ecommerce.service.StockStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceImplTest {
+
+    private final Map<Long, AtomicInteger> stock = new ConcurrentHashMap<>();
+
+    private InventoryRepository inventoryRepository;
+    private StockReservationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository = mock(InventoryRepository.class);
+
+        // Behaves like UPDATE inventory SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?
+        when(inventoryRepository.decrementIfAvailable(anyLong(), anyInt())).thenAnswer(invocation -> {
+            AtomicInteger quantity = stock.get(invocation.<Long>getArgument(0));
+            int requested = invocation.getArgument(1);
+            if (quantity == null) {
+                return 0;
+            }
+            while (true) {
+                int current = quantity.get();
+                if (current < requested) {
+                    return 0;
+                }
+                if (quantity.compareAndSet(current, current - requested)) {
+                    return 1;
+                }
+            }
+        });
+        when(inventoryRepository.increment(anyLong(), anyInt())).thenAnswer(invocation -> {
+            stock.get(invocation.<Long>getArgument(0)).addAndGet(invocation.<Integer>getArgument(1));
+            return 1;
+        });
+
+        service = new StockReservationServiceImpl(inventoryRepository, mock(HotSkuStockService.class),
+                mock(LowStockAlertService.class), mock(StockLedgerService.class),
+                mock(StockStreamService.class));
+    }
+
+    @Test
+    void reservationsAreRejectedOnceStockRunsOut() {
+        stock.put(1L, new AtomicInteger(50));
+        int sold = 0;
+        int rejected = 0;
+
+        for (int i = 0; i < 60; i++) {
+            try {
+                service.reserve(Map.of(1L, 1));
+                sold++;
+            } catch (InsufficientStockException e) {
+                rejected++;
+            }
+        }
+
+        assertEquals(50, sold);
+        assertEquals(10, rejected);
+        assertEquals(0, stock.get(1L).get());
+    }
+
+    @Test
+    void linesAreAppliedInAscendingProductIdOrder() {
+        stock.put(3L, new AtomicInteger(10));
+        stock.put(1L, new AtomicInteger(10));
+        stock.put(2L, new AtomicInteger(10));
+
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        lines.put(3L, 1);
+        lines.put(1L, 2);
+        lines.put(2L, 3);
+
+        service.reserve(lines);
+
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).decrementIfAvailable(1L, 2);
+        inOrder.verify(inventoryRepository).decrementIfAvailable(2L, 3);
+        inOrder.verify(inventoryRepository).decrementIfAvailable(3L, 1);
+    }
+
+    @Test
+    void shortfallStopsAtTheFailingLine() {
+        stock.put(1L, new AtomicInteger(5));
+        stock.put(2L, new AtomicInteger(0));
+        stock.put(3L, new AtomicInteger(5));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> service.reserve(Map.of(1L, 1, 2L, 1, 3L, 1)));
+
+        assertEquals(2L, ex.getProductId());
+        verify(inventoryRepository, never()).decrementIfAvailable(eq(3L), anyInt());
+    }
+}
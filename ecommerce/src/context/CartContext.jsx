@@ -12,6 +12,21 @@ export const CartProvider = ({ children }) => {
   const [initialized, setInitialized] = useState(false);
   const { isAuthenticated, user } = useAuth();
 
+  /**
+   * Store a cart view: each line already carries the product name, image, price,
+   * stock and line total, so pages need no per-product requests
+   */
+  const applyView = (view) => {
+    if (view) {
+      cartApi.setCartId(view.cartId);
+      setCart(view);
+      setCartItems(view.items || []);
+    } else {
+      setCart(null);
+      setCartItems([]);
+    }
+  };
+
   /**
    * Load cart from backend when user is authenticated
    */
@@ -31,18 +46,15 @@ export const CartProvider = ({ children }) => {
         setError(null);
         
         console.log('Loading user cart...');
-        const cartData = await cartApi.getCurrentCart();
+        const view = await cartApi.getCartView();
         
-        if (cartData) {
-          console.log('✅ Cart loaded:', cartData);
-          setCart(cartData);
-          setCartItems(cartData.items || []);
+        if (view) {
+          console.log('✅ Cart loaded:', view);
         } else {
           // Cart doesn't exist yet - this is normal for new users
           console.log('ℹ️ No cart found - will be created when user adds first item');
-          setCart(null);
-          setCartItems([]);
         }
+        applyView(view);
       } catch (error) {
         console.error('Error loading cart:', error);
         
@@ -73,15 +85,7 @@ export const CartProvider = ({ children }) => {
 
     try {
       setLoading(true);
-      const cartData = await cartApi.getCurrentCart();
-      
-      if (cartData) {
-        setCart(cartData);
-        setCartItems(cartData.items || []);
-      } else {
-        setCart(null);
-        setCartItems([]);
-      }
+      applyView(await cartApi.getCartView());
       setError(null);
     } catch (error) {
       console.error('Error refreshing cart:', error);
@@ -114,10 +118,8 @@ export const CartProvider = ({ children }) => {
       setError(null);
 
       console.log(`Adding product ${productId} to cart...`);
-      const updatedCart = await cartApi.addToCart(productId, quantity);
-      
-      setCart(updatedCart);
-      setCartItems(updatedCart.items || []);
+      await cartApi.addToCart(productId, quantity);
+      applyView(await cartApi.getCartView());
       
       console.log('✅ Cart updated successfully');
       return { success: true };
@@ -145,10 +147,8 @@ export const CartProvider = ({ children }) => {
       setLoading(true);
       setError(null);
 
-      const updatedCart = await cartApi.removeFromCart(productId);
-      
-      setCart(updatedCart);
-      setCartItems(updatedCart.items || []);
+      await cartApi.removeFromCart(productId);
+      applyView(await cartApi.getCartView());
       
       return { success: true };
     } catch (error) {
@@ -180,10 +180,8 @@ export const CartProvider = ({ children }) => {
       setLoading(true);
       setError(null);
 
-      const updatedCart = await cartApi.updateCartItem(productId, quantity);
-      
-      setCart(updatedCart);
-      setCartItems(updatedCart.items || []);
+      await cartApi.updateCartItem(productId, quantity);
+      applyView(await cartApi.getCartView());
       
       return { success: true };
     } catch (error) {
@@ -224,7 +222,7 @@ export const CartProvider = ({ children }) => {
       
       // Update cart to reflect empty state
       if (cart) {
-        setCart({ ...cart, items: [], totalAmount: 0 });
+        setCart({ ...cart, items: [], totalItems: 0, totalAmount: 0 });
       }
       
       console.log('✅ Cart cleared successfully (cart entity preserved)');
@@ -297,11 +295,7 @@ export const CartProvider = ({ children }) => {
    * @returns {number}
    */
   const getCartTotal = () => {
-    return cart?.total || cart?.totalAmount || cartItems.reduce((sum, item) => {
-      const price = item.price || item.product?.price || 0;
-      const quantity = item.quantity || 0;
-      return sum + (price * quantity);
-    }, 0);
+    return Number(cart?.totalAmount) || cartItems.reduce((sum, item) => sum + (Number(item.lineTotal) || 0), 0);
   };
 
   /**
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from "react";
+import React, { useState } from "react";
 import { Link } from "react-router-dom";
 import { useCart } from "../context/UseCart";
 
@@ -13,72 +13,8 @@ const Cart = () => {
     clearError,
   } = useCart();
 
-  const [productDetails, setProductDetails] = useState({});
-  const [loadingProducts, setLoadingProducts] = useState(true);
   const [showClearConfirmation, setShowClearConfirmation] = useState(false); // ✅ State for confirmation modal
 
-  // Fetch + normalize product details
-  useEffect(() => {
-    const fetchProductDetails = async () => {
-      if (!cartItems || cartItems.length === 0) {
-        setLoadingProducts(false);
-        return;
-      }
-
-      try {
-        setLoadingProducts(true);
-        const details = {};
-        const productApi = await import("../services/api/productApi");
-
-        for (const item of cartItems) {
-          if (!details[item.productId]) {
-            try {
-              const product =
-                await productApi.default.getProductById(item.productId);
-
-              // 🔥 NORMALIZE BACKEND DTO HERE
-              // Now includes imageUrl from the backend
-              details[item.productId] = {
-                id: product.id,
-                name: product.name ?? "Unnamed Product",
-                description: product.description ?? "",
-                price: Number(product.price) || 0,
-                categoryName: product.category?.name ?? "Uncategorized",
-                // Use imageUrl from backend first, then fallback
-                image:
-                  product.imageUrl ||           // Primary: imageUrl from backend
-                  product.images?.[0] ||        // Fallback: images array
-                  product.image ||              // Fallback: image field
-                  "/images/placeholder.png",    // Final fallback: placeholder
-              };
-            } catch (err) {
-              console.error(
-                `Error fetching product ${item.productId}:`,
-                err
-              );
-              details[item.productId] = {
-                id: item.productId,
-                name: "Product Not Found",
-                description: "",
-                price: 0,
-                categoryName: "Unknown",
-                image: "/images/placeholder.png",
-              };
-            }
-          }
-        }
-
-        setProductDetails(details);
-      } catch (err) {
-        console.error("Error fetching product details:", err);
-      } finally {
-        setLoadingProducts(false);
-      }
-    };
-
-    fetchProductDetails();
-  }, [cartItems]);
-
   const handleQuantityUpdate = async (productId, newQuantity) => {
     if (newQuantity < 1) return;
     const result = await updateQuantity(productId, newQuantity);
@@ -105,17 +41,11 @@ const Cart = () => {
     }
   };
 
-  // Calculate totals from product details and cart items
+  // Line totals come priced from the cart view
   const calculateSubtotal = () => {
     if (!cartItems || cartItems.length === 0) return 0;
-    
-    return cartItems.reduce((total, item) => {
-      const product = productDetails[item.productId];
-      if (product && product.price) {
-        return total + (product.price * item.quantity);
-      }
-      return total;
-    }, 0);
+
+    return cartItems.reduce((total, item) => total + (Number(item.lineTotal) || 0), 0);
   };
 
   const subtotal = calculateSubtotal();
@@ -123,7 +53,7 @@ const Cart = () => {
   const total = subtotal + shipping;
 
   // Loading state
-  if (loading || loadingProducts) {
+  if (loading) {
     return (
       <div className="bg-gray-50 min-h-screen py-20 text-center">
         <div className="animate-spin rounded-full h-16 w-16 border-b-2 border-primary-red mx-auto mb-4"></div>
@@ -186,10 +116,9 @@ const Cart = () => {
           {/* Cart Items */}
           <div className="lg:col-span-2 space-y-4">
             {cartItems.map((item) => {
-              const product = productDetails[item.productId];
-              if (!product) return null;
-
-              const itemTotal = product.price * item.quantity;
+              const price = Number(item.unitPrice) || 0;
+              const itemTotal = Number(item.lineTotal) || price * item.quantity;
+              const image = item.imageUrl || "/images/placeholder.png";
 
               return (
                 <div
@@ -199,11 +128,11 @@ const Cart = () => {
                   <div className="flex gap-6">
                     {/* Product Image with better error handling */}
                     <img
-                      src={product.image}
-                      alt={product.name}
+                      src={image}
+                      alt={item.productName}
                       className="w-32 h-32 object-cover rounded-lg"
                       onError={(e) => {
-                        console.warn(`Failed to load image: ${product.image}`);
+                        console.warn(`Failed to load image: ${image}`);
                         e.target.src = "/images/placeholder.png";
                       }}
                     />
@@ -212,11 +141,13 @@ const Cart = () => {
                       <div className="flex justify-between mb-2">
                         <div>
                           <h3 className="text-xl font-bold text-gray-900">
-                            {product.name}
+                            {item.productName ?? "Unnamed Product"}
                           </h3>
-                          <p className="text-sm text-gray-600 mt-1">
-                            Category: {product.categoryName}
-                          </p>
+                          {item.sku && (
+                            <p className="text-sm text-gray-600 mt-1">
+                              SKU: {item.sku}
+                            </p>
+                          )}
                         </div>
 
                         <button
@@ -231,7 +162,7 @@ const Cart = () => {
                       </div>
 
                       <p className="text-2xl font-bold text-primary-red mb-4">
-                        R {product.price.toFixed(2)}
+                        R {price.toFixed(2)}
                       </p>
 
                       <div className="flex items-center gap-4">
@@ -4,7 +4,7 @@ import { useCart } from '../context/UseCart';
 import { createCheckoutSession } from '../services/api/stripeApi';
 
 const Checkout = () => {
-  const { cart, cartItems } = useCart();
+  const { cart, cartItems, loading } = useCart();
   const navigate = useNavigate();
 
   const [formData, setFormData] = useState({
@@ -16,8 +16,6 @@ const Checkout = () => {
     postalCode: '',
   });
 
-  const [productDetails, setProductDetails] = useState({});
-  const [loadingProducts, setLoadingProducts] = useState(true);
   const [processing, setProcessing] = useState(false);
   const [error, setError] = useState(null);
 
@@ -28,62 +26,12 @@ const Checkout = () => {
     }
   }, [cartItems, navigate]);
 
-  // Fetch product details for cart items
-  useEffect(() => {
-    const fetchProductDetails = async () => {
-      if (!cartItems || cartItems.length === 0) {
-        setLoadingProducts(false);
-        return;
-      }
-
-      try {
-        setLoadingProducts(true);
-        const details = {};
-        const productApi = await import("../services/api/productApi");
-
-        for (const item of cartItems) {
-          if (!details[item.productId]) {
-            try {
-              const product = await productApi.default.getProductById(item.productId);
-              details[item.productId] = {
-                id: product.id,
-                name: product.name ?? "Unnamed Product",
-                price: Number(product.price) || 0,
-                imageUrl: product.imageUrl,
-              };
-            } catch (err) {
-              console.error(`Error fetching product ${item.productId}:`, err);
-              details[item.productId] = {
-                id: item.productId,
-                name: "Product Not Found",
-                price: 0,
-              };
-            }
-          }
-        }
-
-        setProductDetails(details);
-      } catch (err) {
-        console.error("Error fetching product details:", err);
-      } finally {
-        setLoadingProducts(false);
-      }
-    };
-
-    fetchProductDetails();
-  }, [cartItems]);
-
   // Calculate totals
   const calculateSubtotal = () => {
     if (!cartItems || cartItems.length === 0) return 0;
     
-    return cartItems.reduce((total, item) => {
-      const product = productDetails[item.productId];
-      if (product && product.price) {
-        return total + (product.price * item.quantity);
-      }
-      return total;
-    }, 0);
+    // Line totals come priced from the cart view
+    return cartItems.reduce((total, item) => total + (Number(item.lineTotal) || 0), 0);
   };
 
   const subtotal = calculateSubtotal();
@@ -174,7 +122,7 @@ const Checkout = () => {
     }
   };
 
-  if (loadingProducts) {
+  if (loading) {
     return (
       <div className="min-h-screen bg-gray-50 flex items-center justify-center">
         <div className="text-center">
@@ -323,23 +271,20 @@ const Checkout = () => {
                 {/* Cart Items Preview */}
                 <div className="mb-6 max-h-64 overflow-y-auto">
                   {cartItems.map((item) => {
-                    const product = productDetails[item.productId];
-                    if (!product) return null;
-
                     return (
                       <div key={item.productId} className="flex gap-3 py-3 border-b">
-                        {product.imageUrl && (
+                        {item.imageUrl && (
                           <img 
-                            src={product.imageUrl} 
-                            alt={product.name}
+                            src={item.imageUrl} 
+                            alt={item.productName}
                             className="w-16 h-16 object-cover rounded"
                           />
                         )}
                         <div className="flex-1">
-                          <p className="text-sm font-medium text-gray-900">{product.name}</p>
+                          <p className="text-sm font-medium text-gray-900">{item.productName}</p>
                           <p className="text-xs text-gray-600">Qty: {item.quantity}</p>
                           <p className="text-sm font-semibold text-gray-900 mt-1">
-                            R {(product.price * item.quantity).toFixed(2)}
+                            R {(Number(item.lineTotal) || 0).toFixed(2)}
                           </p>
                         </div>
                       </div>
@@ -1,7 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import orderApi from '../services/api/orderApi';
-import productApi from '../services/api/productApi';
 import {  getTimestamp } from '../utils/DateUtils';
 
 const Orders = () => {
@@ -10,7 +9,6 @@ const Orders = () => {
   const [error, setError] = useState(null);
   const [filterStatus, setFilterStatus] = useState('all');
   const [selectedOrder, setSelectedOrder] = useState(null);
-  const [productDetails, setProductDetails] = useState({});
 
   useEffect(() => {
     fetchOrders();
@@ -28,35 +26,6 @@ const Orders = () => {
       );
       
       setOrders(sortedOrders);
-
-      // Fetch product details for all order items
-      const productIds = new Set();
-      sortedOrders.forEach(order => {
-        order.items?.forEach(item => {
-          productIds.add(item.productId);
-        });
-      });
-
-      // Fetch all unique products
-      const productPromises = Array.from(productIds).map(async (id) => {
-        try {
-          const product = await productApi.getProductById(id);
-          return { id, product };
-        } catch (err) {
-          console.error(`Failed to fetch product ${id}:`, err);
-          return { id, product: null };
-        }
-      });
-
-      const productResults = await Promise.all(productPromises);
-      const productsMap = {};
-      productResults.forEach(({ id, product }) => {
-        if (product) {
-          productsMap[id] = product;
-        }
-      });
-      
-      setProductDetails(productsMap);
     } catch (err) {
       console.error('Error fetching orders:', err);
       setError('Failed to load orders. Please try again.');
@@ -297,17 +266,17 @@ const Orders = () => {
                       <h3 className="text-lg font-bold text-gray-900 mb-4">Order Items</h3>
                       <div className="space-y-3">
                         {order.items?.map((item, index) => {
-                          const product = productDetails[item.productId];
+                          // Name and image are snapshotted on the order line at placement
                           return (
                             <div
                               key={index}
                               className="flex items-center gap-4 bg-white p-4 rounded-lg"
                             >
                               <div className="w-16 h-16 bg-gray-100 rounded-lg flex items-center justify-center overflow-hidden flex-shrink-0">
-                                {product?.imageUrl ? (
+                                {item.imageUrl ? (
                                   <img
-                                    src={product.imageUrl}
-                                    alt={product.name}
+                                    src={item.imageUrl}
+                                    alt={item.productName}
                                     className="w-full h-full object-cover"
                                   />
                                 ) : (
@@ -316,7 +285,7 @@ const Orders = () => {
                               </div>
                               <div className="flex-grow">
                                 <h4 className="font-semibold text-gray-900">
-                                  {product?.name || `Product #${item.productId}`}
+                                  {item.productName || `Product #${item.productId}`}
                                 </h4>
                                 <p className="text-sm text-gray-600">Quantity: {item.quantity}</p>
                               </div>
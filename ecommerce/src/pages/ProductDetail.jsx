@@ -45,6 +45,21 @@ const ProductDetail = () => {
     }
   }, [id]);
 
+  // Live "only N left" updates pushed by the server instead of re-fetching the product
+  useEffect(() => {
+    if (!id) return undefined;
+
+    const productId = parseInt(id);
+    const close = productApi.streamStock([productId], (updates) => {
+      const update = updates.find((u) => u.productId === productId);
+      if (update) {
+        setProduct((current) => current && { ...current, stockQuantity: update.stockQuantity });
+      }
+    });
+
+    return close;
+  }, [id]);
+
   const handleAddToCart = async () => {
     // Check if user is logged in
     if (!isAuthenticated()) {
@@ -40,7 +40,7 @@ const AdminDashboard = () => {
             customer: 'Customer', // Backend doesn't provide customer name in OrderDto
             total: parseFloat(order.totalAmount),
             status: order.status.toLowerCase(),
-            date: new Date().toISOString().split('T')[0], // Backend doesn't provide date
+            date: (order.createdAt ? new Date(order.createdAt) : new Date()).toISOString().split('T')[0],
           }));
 
         // Find low stock products (less than 10 items)
@@ -38,10 +38,10 @@ const AdminOrders = () => {
           name: 'Customer', // Backend doesn't provide customer info in OrderDto
           email: 'customer@example.com', // Backend doesn't provide customer email
         },
-        items: order.items ? order.items.length : 0,
+        items: order.itemCount ?? (order.items ? order.items.length : 0),
         total: parseFloat(order.totalAmount),
         status: order.status.toLowerCase(),
-        date: new Date(), // Backend doesn't provide date in OrderDto
+        date: order.createdAt ? new Date(order.createdAt) : new Date(),
         shippingAddress: 'Not available', // Backend doesn't provide address in OrderDto
       }));
       
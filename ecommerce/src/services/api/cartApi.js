@@ -31,6 +31,18 @@ const cartApi = {
     return response.data;
   },
 
+  // Get current user's cart with product name, image, price, stock and line totals
+  getCartView: async () => {
+    const token = localStorage.getItem('token');
+    const response = await axios.get(`${API_BASE_URL}/cart/my-cart/view`, {
+      headers: {
+        Authorization: `Bearer ${token}`,
+      },
+    });
+
+    return response.data;
+  },
+
   // Create a new cart
   createCart: async () => {
     const token = localStorage.getItem('token');
@@ -6,6 +6,17 @@ import apiClient from './apiClient';
  */
 
 const checkoutApi = {
+  /**
+   * Check totals, stock and price changes before placing the order (no writes)
+   * GET /checkout/{cartId}/preflight
+   * @param {number} cartId - Cart ID to check
+   * @returns {Promise<Object>} { total, cartTotal, priceChanged, allAvailable, ready, lines }
+   */
+  preflight: async (cartId) => {
+    const response = await apiClient.get(`/checkout/${cartId}/preflight`);
+    return response.data;
+  },
+
   /**
    * Process checkout and create order from cart
    * POST /checkout/{cartId}
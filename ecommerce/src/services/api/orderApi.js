@@ -27,6 +27,17 @@ const orderApi = {
     return response.data;
   },
 
+  /**
+   * Get one page of the current user's orders, newest first
+   * GET /orders/page
+   * @param {Object} params - Optional status, from, to (ISO date-time), cursor and size
+   * @returns {Promise<Object>} { orders, nextCursor, hasMore }
+   */
+  getOrderPage: async (params = {}) => {
+    const response = await apiClient.get('/orders/page', { params });
+    return response.data;
+  },
+
   /**
    * Cancel an order
    * DELETE /orders/{id}
@@ -121,6 +121,69 @@ const productApi = {
     });
     return response.data;
   },
+
+  /**
+   * Stream live stock levels instead of polling getProductById
+   * GET /api/v1/products/stock/stream?ids=1,2,3 (server-sent events)
+   * Uses fetch rather than EventSource so the bearer token can be sent.
+   * @param {Array<number>} ids - Product IDs to watch (max 50)
+   * @param {Function} onUpdate - Called with [{ productId, stockQuantity }]
+   * @returns {Function} Call to close the stream
+   */
+  streamStock: (ids, onUpdate) => {
+    const controller = new AbortController();
+    const token = localStorage.getItem('token');
+
+    const read = async () => {
+      const response = await fetch(
+        `${apiClient.defaults.baseURL}/api/v1/products/stock/stream?ids=${ids.join(',')}`,
+        {
+          headers: {
+            Accept: 'text/event-stream',
+            ...(token ? { Authorization: `Bearer ${token}` } : {}),
+          },
+          signal: controller.signal,
+        }
+      );
+      if (!response.ok || !response.body) {
+        throw new Error(`Stock stream failed with status ${response.status}`);
+      }
+
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += decoder.decode(value, { stream: true });
+
+        // Events are separated by a blank line; keep the unfinished tail for the next chunk
+        const events = buffer.split(/\r?\n\r?\n/);
+        buffer = events.pop();
+
+        for (const event of events) {
+          const lines = event.split(/\r?\n/);
+          const name = lines.find((line) => line.startsWith('event:'))?.slice(6).trim();
+          const data = lines
+            .filter((line) => line.startsWith('data:'))
+            .map((line) => line.slice(5).trim())
+            .join('\n');
+          if (name === 'stock' && data) {
+            onUpdate(JSON.parse(data));
+          }
+        }
+      }
+    };
+
+    read().catch((error) => {
+      if (error.name !== 'AbortError') {
+        console.error('Stock stream closed:', error);
+      }
+    });
+
+    return () => controller.abort();
+  },
 };
 
 export default productApi;